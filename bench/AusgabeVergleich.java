@@ -0,0 +1,74 @@
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Prüfung der schnellen Formatierung der Koordinaten in {@link Ausgabe} gegen String.format mit %f.
+ * Geprüft werden Sonderfälle (0, -0, NaN, Unendlich, Grenzen der Rundung, Zahlen ab 10^12) und zufällige Zahlen:
+ * beliebige Bitmuster, Zahlen in allen Größenordnungen, ganze Zahlen und Zahlen genau auf oder neben der Mitte
+ * zwischen zwei Werten mit 6 Nachkommastellen, bei denen die Rundung entscheidet.
+ * <p>
+ * Aufruf: <code>java -cp out AusgabeVergleich [anzahl] [seed]</code>, endet mit ExitCode 1, wenn eine Zahl abweicht.
+ *
+ * @author ehamada
+ */
+public class AusgabeVergleich {
+    /**
+     * Attribute:
+     *
+     * @ANZAHL Default für die Anzahl der zufälligen Zahlen
+     * @BEISPIELE Anzahl der Abweichungen, die höchstens ausgegeben werden
+     */
+    private static final int ANZAHL = 3_000_000;
+    private static final int BEISPIELE = 10;
+
+    public static void main(String[] args) {
+        int anzahl = args.length > 0 ? Integer.parseInt(args[0]) : ANZAHL;
+        Random random = new Random(args.length > 1 ? Long.parseLong(args[1]) : 1);
+        int fehler = 0;
+        double[] sonderfaelle = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE,
+                -Double.MIN_VALUE, Double.MAX_VALUE, 5e-7, 4.999999e-7, -5e-7, 0.0000015, 0.9999995, 9.9999995, 999999.9999995,
+                1e12, -1e12, 999999999999.9999, 1e11 + 0.5e-6, 0.1, 0.125, 1.0 / 3, 2.5e-7, 123456.7890125};
+        for (double wert : sonderfaelle) {
+            fehler += vergleiche(wert, fehler);
+        }
+        for (int k = 0; k < anzahl; k++) {
+            double wert;
+            switch (k % 4) {
+                case 0:     //Beliebiges Bitmuster, meist sehr groß oder sehr klein
+                    wert = Double.longBitsToDouble(random.nextLong());
+                    break;
+                case 1:     //Alle Größenordnungen bis 10^13
+                    wert = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(21) - 8);
+                    break;
+                case 2:     //Ganze Zahlen
+                    wert = random.nextInt() / (random.nextBoolean() ? 1 : 1000);
+                    break;
+                default:    //Auf oder neben der Mitte zwischen zwei Werten mit 6 Nachkommastellen
+                    wert = (random.nextInt(2_000_000_000) - 1_000_000_000 + 0.5) / 1e6 + (random.nextInt(3) - 1) * 1e-13;
+            }
+            fehler += vergleiche(wert, fehler);
+        }
+        System.out.println((anzahl + sonderfaelle.length) + " Zahlen geprüft, " + fehler + " Abweichungen");
+        if (fehler > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @param wert   Zahl, die mit beiden Trennzeichen formatiert wird
+     * @param fehler Anzahl der bisherigen Abweichungen, die ersten BEISPIELE werden ausgegeben
+     * @return Returns 1, wenn die Formatierung abweicht, sonst 0
+     */
+    private static int vergleiche(double wert, int fehler) {
+        String erwartet = String.format(Locale.ROOT, "%f", wert);
+        String punkt = Ausgabe.formatiere(new StringBuilder(), wert, '.').toString();
+        String komma = Ausgabe.formatiere(new StringBuilder(), wert, ',').toString();
+        if (punkt.equals(erwartet) && komma.equals(erwartet.replace('.', ','))) {
+            return 0;
+        }
+        if (fehler < BEISPIELE) {
+            System.out.println("Abweichung bei " + wert + " (" + Double.doubleToRawLongBits(wert) + "): " + punkt + " statt " + erwartet);
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,163 @@
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Einfacher Benchmark für die einzelnen Schritte des Programms: Einlesen, eine Iteration des Hauptalgorithmus,
+ * das vollständige Iterationsverfahren und die Ausgabe.
+ * Die Eingaben werden mit der Klasse Generator in einem temporären Ordner erzeugt.
+ * <p>
+ * Jeder Schritt wird zuerst einige Male zum Aufwärmen der JVM ausgeführt und danach mehrmals gemessen,
+ * ausgegeben wird der Median der Messungen in Millisekunden. Das vollständige Iterationsverfahren wird nur einmal gemessen
+ * und nach höchstens KONVERGENZ Iterationen beendet, da die synthetischen Eingaben anfangs sehr viele Überlappungen haben
+ * und ein Lauf bis zur Abbruchschwelle schon bei 1000 Ländern Minuten dauert.
+ * Mit --max-iterationen=n wird eine andere Grenze gesetzt, mit --max-iterationen=0 wird bis zur Abbruchschwelle iteriert.
+ * Nach dem vollständigen Iterationsverfahren wird das Layout geprüft (siehe {@link Pruefung}). Mit --max-tiefe und --max-ueberlappungen
+ * dient die Prüfung als Schranke: ist die größte Überlappung bei einer Größe tiefer oder überlappen sich mehr Paare,
+ * endet der Benchmark mit ExitCode 2.
+ * Die Ausgabe hat ein festes Format (eine Zeile pro Messung), damit Ergebnisse verschiedener Versionen verglichen werden können.
+ *
+ * @author ehamada
+ */
+public class Benchmark {
+    /**
+     * Attribute:
+     *
+     * @AUFWAERMEN Anzahl der Durchläufe zum Aufwärmen
+     * @MESSUNGEN Anzahl der gemessenen Durchläufe
+     * @KONVERGENZ Default für die maximale Anzahl an Iterationen des vollständigen Iterationsverfahrens
+     */
+    private static final int AUFWAERMEN = 3;
+    private static final int MESSUNGEN = 5;
+    private static final int KONVERGENZ = 100;
+
+    /**
+     * Schnittstelle für einen zu messenden Schritt. Bekommt bei jedem Durchlauf eine frisch eingelesene Liste der Länder,
+     * da der Hauptalgorithmus die Länder verändert.
+     */
+    private interface Schritt {
+        void ausfuehren(ArrayList<Land> laender) throws Exception;
+    }
+
+    /**
+     * Main Methode des Benchmarks
+     *
+     * @param args Anzahl der Länder, für die gemessen wird (Default 10 1000 10000, 100000 nur wenn angegeben,
+     *             da eine Iteration dort mehrere Sekunden und mehr als den Default Heap braucht),
+     *             optional --ohne-konvergenz, um das vollständige Iterationsverfahren auszulassen,
+     *             --strategie=name für das Verfahren des vollständigen Iterationsverfahrens,
+     *             --max-iterationen=n für die Grenze des vollständigen Iterationsverfahrens (Default KONVERGENZ, 0 ohne Grenze),
+     *             --simd, um Iteration und Iterationsverfahren mit dem Vektorkern zu messen (siehe Kern)
+     *             und --max-tiefe=t bzw. --max-ueberlappungen=k als Schranke für die größte Überlappung bzw. die Anzahl
+     *             der überlappenden Paare nach dem vollständigen Iterationsverfahren
+     */
+    public static void main(String[] args) throws Exception {
+        ArrayList<Integer> groessen = new ArrayList<>();
+        boolean konvergenz = true;
+        int maxIterationen = KONVERGENZ;
+        Strategie strategie = Strategie.FEST;
+        Kern kern = null;
+        double maxTiefe = Double.POSITIVE_INFINITY;
+        int maxUeberlappungen = Integer.MAX_VALUE;
+        boolean schrankeVerletzt = false;
+        for (String arg : args) {
+            if (arg.equals("--ohne-konvergenz")) {
+                konvergenz = false;
+            } else if (arg.equals("--simd")) {
+                kern = Kern.vektor();
+                if (kern == null) {
+                    System.out.println("Vektorkern nicht verfügbar");
+                    System.exit(1);
+                }
+            } else if (arg.startsWith("--max-tiefe=")) {
+                maxTiefe = Double.parseDouble(arg.substring("--max-tiefe=".length()));
+            } else if (arg.startsWith("--max-ueberlappungen=")) {
+                maxUeberlappungen = Integer.parseInt(arg.substring("--max-ueberlappungen=".length()));
+            } else if (arg.startsWith("--max-iterationen=")) {
+                maxIterationen = Integer.parseInt(arg.substring("--max-iterationen=".length()));
+            } else if (arg.startsWith("--strategie=")) {
+                strategie = Strategie.valueOf(arg.substring("--strategie=".length()).toUpperCase());
+            } else {
+                groessen.add(Integer.parseInt(arg));
+            }
+        }
+        if (groessen.isEmpty()) {
+            groessen.addAll(Arrays.asList(10, 1000, 10000));
+        }
+        File ordner = Files.createTempDirectory("benchmark").toFile();
+        String pfad = ordner.getPath() + File.separator;
+        final Kern k = kern;
+        System.out.println("Schritt n ms");
+        for (int n : groessen) {
+            String datei = "synthetisch" + n;
+            new Generator(n, 4, Math.max(1, n / 1000), 1).erzeuge(datei, pfad);
+
+            messe("einlesen", n, datei, pfad, laender -> new Einlesen().leseDatei(datei, pfad));
+            messe("iteration", n, datei, pfad, laender -> {
+                Algorithmus algorithmus = new Algorithmus();
+                algorithmus.setMaxIterationen(1);
+                algorithmus.setKern(k);
+                algorithmus.calculate(laender);
+            });
+            ArrayList<Land> ergebnis = new Einlesen().leseDatei(datei, pfad);
+            double[][] lage = Pruefung.lage(ergebnis);
+            if (konvergenz) {
+                Algorithmus algorithmus = new Algorithmus();
+                algorithmus.setStrategie(strategie);
+                algorithmus.setKern(k);
+                if (maxIterationen > 0) {
+                    algorithmus.setMaxIterationen(maxIterationen);
+                }
+                long start = System.nanoTime();
+                Ergebnis e = algorithmus.berechne(ergebnis);
+                System.out.printf(Locale.ROOT, "konvergenz %d %.3f (%s, %d Iterationen, epsilon %.6f, %s)%n",
+                        n, (System.nanoTime() - start) / 1e6, strategie, e.iterationen, e.epsilon, e.abbruch);
+                Pruefung pruefung = Pruefung.pruefe(ergebnis, lage);
+                System.out.println(pruefung);
+                if (pruefung.maxTiefe > maxTiefe) {
+                    System.out.printf(Locale.ROOT, "Schranke verletzt: maxTiefe %.6f > %.6f bei %d Ländern%n", pruefung.maxTiefe, maxTiefe, n);
+                    schrankeVerletzt = true;
+                }
+                if (pruefung.ueberlappungen > maxUeberlappungen) {
+                    System.out.printf(Locale.ROOT, "Schranke verletzt: %d Überlappungen > %d bei %d Ländern%n", pruefung.ueberlappungen, maxUeberlappungen, n);
+                    schrankeVerletzt = true;
+                }
+            }
+            messe("pruefung", n, datei, pfad, laender -> Pruefung.pruefe(ergebnis, lage));
+            messe("ausgabe", n, datei, pfad, laender -> new Ausgabe().ausgabe(ergebnis, datei + ".out", pfad, 0, "Benchmark"));
+
+            new File(pfad + datei).delete();
+            new File(pfad + datei + ".out").delete();
+        }
+        ordner.delete();
+        if (schrankeVerletzt) {
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Methode zum Messen eines Schrittes. Gibt den Median der Messungen aus.
+     *
+     * @param name    Name des Schrittes
+     * @param n       Anzahl der Länder
+     * @param datei   Eingabedatei, wird vor jedem Durchlauf außerhalb der Messung eingelesen
+     * @param pfad    Pfad zu der Eingabedatei
+     * @param schritt Schritt, der gemessen werden soll
+     */
+    private static void messe(String name, int n, String datei, String pfad, Schritt schritt) throws Exception {
+        for (int i = 0; i < AUFWAERMEN; i++) {
+            schritt.ausfuehren(new Einlesen().leseDatei(datei, pfad));
+        }
+        double[] zeiten = new double[MESSUNGEN];
+        for (int i = 0; i < MESSUNGEN; i++) {
+            ArrayList<Land> laender = new Einlesen().leseDatei(datei, pfad);
+            long start = System.nanoTime();
+            schritt.ausfuehren(laender);
+            zeiten[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(zeiten);
+        System.out.printf(Locale.ROOT, "%s %d %.3f%n", name, n, zeiten[MESSUNGEN / 2]);
+    }
+}
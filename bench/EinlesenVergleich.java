@@ -0,0 +1,227 @@
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.InvalidPropertiesFormatException;
+import java.util.Random;
+
+/**
+ * Prüfung des Einlesens mit Hash Indizes (siehe {@link Einlesen}) gegen das frühere Einlesen, das für jede Zeile
+ * alle bisher gelesenen Länder durchsucht hat (hier als referenz nachgebaut). Beide müssen dieselben Länder mit denselben
+ * Nachbarn in derselben Reihenfolge liefern oder denselben Fehler mit derselben Meldung werfen.
+ * Geprüft werden die Dateien in Beispiele/, eine synthetische Eingabe und zufällige kleine Dateien mit doppelten Namen,
+ * gleichen Lagen, -0.0, NaN, ungültigen Kennwerten, unbekannten und doppelten Nachbarn, Nachbarn von sich selbst,
+ * leeren Seiten von Beziehungen, Tabs und Kommentaren.
+ * Zeilen nur aus # und Dateien mit mehreren Kennwerten werden nicht erzeugt, da das frühere Einlesen sie nicht kannte.
+ * <p>
+ * Aufruf: <code>java -cp out EinlesenVergleich [anzahl] [seed]</code> im Projektordner, endet mit ExitCode 1 bei einer Abweichung.
+ *
+ * @author ehamada
+ */
+public class EinlesenVergleich {
+    /**
+     * Attribute:
+     *
+     * @ANZAHL Default für die Anzahl der zufälligen Dateien
+     * @NAMEN Namen der Länder in den zufälligen Dateien, wenige, damit sich Namen wiederholen
+     * @ZAHLEN Werte für Kennwerte und Koordinaten in den zufälligen Dateien, wenige, damit sich Lagen wiederholen
+     */
+    private static final int ANZAHL = 20000;
+    private static final String[] NAMEN = {"A", "B", "C", "D", "E", "Ö", "L1"};
+    private static final String[] ZAHLEN = {"1", "7", "250", "0", "-3", "2.5", "-0.0", "0.0", "NaN", "1e400", "x"};
+
+    public static void main(String[] args) throws Exception {
+        int anzahl = args.length > 0 ? Integer.parseInt(args[0]) : ANZAHL;
+        Random random = new Random(args.length > 1 ? Long.parseLong(args[1]) : 1);
+        int abweichungen = 0;
+        int geprueft = 0;
+        File[] beispiele = new File("Beispiele").listFiles(f -> f.isFile() && !f.getName().endsWith(".out"));
+        if (beispiele != null) {
+            for (File f : beispiele) {
+                abweichungen += vergleiche(f.getName(), Files.readString(f.toPath(), StandardCharsets.UTF_8));
+                geprueft++;
+            }
+        }
+        StringWriter synthetisch = new StringWriter();
+        new Generator(5000, 4, 5, 1).erzeuge(synthetisch);
+        abweichungen += vergleiche("synthetisch", synthetisch.toString());
+        geprueft++;
+        for (int k = 0; k < anzahl; k++) {
+            abweichungen += vergleiche("zufall" + k, zufall(random));
+            geprueft++;
+        }
+        System.out.println(geprueft + " Eingaben geprüft, " + abweichungen + " Abweichungen");
+        if (abweichungen > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return Returns 1 und gibt beide Ergebnisse aus, wenn Einlesen und referenz für den Text verschieden sind, sonst 0
+     */
+    private static int vergleiche(String name, String text) {
+        String erwartet;
+        String ergebnis;
+        try {
+            erwartet = beschreibe(referenz(text));
+        } catch (Exception e) {
+            erwartet = beschreibe(e);
+        }
+        try {
+            ergebnis = beschreibe(new Einlesen().leseText(text));
+        } catch (Exception e) {
+            ergebnis = beschreibe(e);
+        }
+        //Wirft die JVM eine Exception oft an derselben Stelle, lässt sie die Meldung weg (OmitStackTraceInFastThrow)
+        if (erwartet.equals(ergebnis) || erwartet.endsWith(": null") && ergebnis.startsWith(erwartet.substring(0, erwartet.length() - 4))
+                || ergebnis.endsWith(": null") && erwartet.startsWith(ergebnis.substring(0, ergebnis.length() - 4))) {
+            return 0;
+        }
+        System.out.println("Abweichung bei " + name + ":\n" + text + "\nerwartet: " + erwartet + "\nerhalten: " + ergebnis);
+        return 1;
+    }
+
+    private static String beschreibe(Exception e) {
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    /**
+     * @return Returns Text mit Name, Lage, Radius und Namen der Nachbarn jedes Landes in der Reihenfolge der Liste
+     */
+    private static String beschreibe(ArrayList<Land> laender) {
+        StringBuilder text = new StringBuilder();
+        for (Land land : laender) {
+            text.append(land.name).append(' ').append(land.x).append(' ').append(land.y).append(' ').append(land.radius).append(" [");
+            for (Land nachbar : land.nachbarn) {
+                text.append(nachbar.name).append(' ');
+            }
+            text.append("] ");
+        }
+        return text.toString();
+    }
+
+    /**
+     * @return Returns zufällige Eingabe aus einigen Ländern und Beziehungen mit zufälligen Trennzeichen und Kommentaren
+     */
+    private static String zufall(Random random) {
+        StringBuilder text = new StringBuilder("Zufall\n");
+        ArrayList<String> gelesen = new ArrayList<>();  //Namen der bisherigen Länder, damit die meisten Beziehungen gültig sind
+        int zeilen = 1 + random.nextInt(15);
+        for (int z = 0; z < zeilen; z++) {
+            StringBuilder zeile = new StringBuilder();
+            if (!gelesen.isEmpty() && random.nextInt(3) == 0) {
+                zeile.append(random.nextInt(10) == 0 ? wahl(random, NAMEN) : gelesen.get(random.nextInt(gelesen.size())));
+                zeile.append(random.nextInt(20) == 0 ? " " : "").append(':');
+                int nachbarn = random.nextInt(20) == 0 ? 0 : 1 + random.nextInt(4);
+                for (int k = 0; k < nachbarn; k++) {
+                    zeile.append(trenner(random)).append(random.nextInt(8) == 0 ? "Z" : wahl(random, NAMEN));
+                }
+                if (random.nextInt(30) == 0) {
+                    zeile.append(":").append(wahl(random, NAMEN));
+                }
+            } else {
+                String name = wahl(random, NAMEN);
+                gelesen.add(name);
+                zeile.append(name);
+                int werte = random.nextInt(30) == 0 ? random.nextInt(3) : 3;
+                for (int k = 0; k < werte; k++) {
+                    //Meist gültige Kennwerte und wenige verschiedene Koordinaten, selten Sonderfälle
+                    String wert = k == 0 ? String.valueOf(1 + random.nextInt(1000)) : String.valueOf(random.nextInt(3));
+                    zeile.append(trenner(random)).append(random.nextInt(15) == 0 ? wahl(random, ZAHLEN) : wert);
+                }
+            }
+            if (random.nextInt(4) == 0) {
+                zeile.append(trenner(random));
+            }
+            if (random.nextInt(6) == 0) {
+                zeile.append("# Kommentar: A B");
+            }
+            text.append(zeile).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static String wahl(Random random, String[] werte) {
+        return werte[random.nextInt(werte.length)];
+    }
+
+    private static String trenner(Random random) {
+        return random.nextInt(3) == 0 ? "\t " : random.nextInt(2) == 0 ? " " : "  ";
+    }
+
+    /**
+     * Früheres Einlesen, bis auf das Lesen aus einem Text statt einer Datei unverändert
+     */
+    private static ArrayList<Land> referenz(String text) throws Exception {
+        ArrayList<Land> laender = new ArrayList<>();
+        int i = 0;
+        for (String line : text.split("\n")) {
+            if (line.contains("#")) {
+                line = line.split("#")[0];
+            }
+            if (line.length() != 0) {
+                if (i == 0) {
+                    //Name der Kennwerte, wird hier nicht verglichen
+                } else if (line.contains(":")) {
+                    String[] split = line.split(":");
+                    String name = split[0];
+                    if (split.length != 2) {
+                        throw new InvalidPropertiesFormatException("Eine Seite der Beziehung ist leer");
+                    }
+                    String[] nachbarn = split[1].trim().split("( |\t)+");
+                    Land erstesLand = new Land(-1, -1, -1, "False");
+                    for (Land land : laender) {
+                        if (land.name.equals(name)) {
+                            erstesLand = land;
+                        }
+                    }
+                    if (!laender.contains(erstesLand)) {
+                        throw new InvalidPropertiesFormatException("Land mit dem Namen " + name + " existiert nicht");
+                    }
+                    for (int j = 0; j < nachbarn.length; j++) {
+                        for (Land land : laender) {
+                            if (land.name.equals(nachbarn[j])) {
+                                if (land.nachbarn.contains(erstesLand)) {
+                                    continue;
+                                }
+                                erstesLand.nachbarn.add(land);
+                                land.nachbarn.add(erstesLand);
+                            }
+                        }
+                    }
+                } else {
+                    String[] split = line.split("( |\t)+");
+                    String name = split[0];
+                    int kennwert = Integer.parseInt(split[1]);
+                    if (kennwert <= 0) {
+                        throw new NumberFormatException("Fläche des Kreises kann nicht <=0 sein");
+                    }
+                    double laenge = Double.parseDouble(split[2]);
+                    double breite = Double.parseDouble(split[3]);
+                    if (Math.abs(laenge) > Double.MAX_VALUE || Math.abs(breite) > Double.MAX_VALUE) {
+                        throw new NumberFormatException("Wert ist zu groß/ zu klein für Double");
+                    }
+                    Land land = new Land(laenge, breite, Math.sqrt(kennwert / Math.PI), name);
+                    land.nachbarn = new ArrayList<>();
+                    boolean exists = false;
+                    for (Land doppelt : laender) {
+                        if (doppelt.name.equals(name)) {
+                            exists = true;
+                        } else if (doppelt.x == laenge && doppelt.y == breite) {
+                            throw new InvalidPropertiesFormatException("2 Länder haben dieselbe Lage, aber unterschiedliche Namen");
+                        }
+                    }
+                    if (!exists) {
+                        laender.add(land);
+                    }
+                }
+                i++;
+            }
+        }
+        if (i == 0) {
+            throw new Exception("Eingabedatei ist leer");
+        }
+        return laender;
+    }
+}
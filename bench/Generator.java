@@ -0,0 +1,163 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Klasse zum Erzeugen synthetischer Eingabedateien im Format, das die Klasse Einlesen erwartet.
+ * Wird für Benchmarks mit großen Eingaben genutzt, da die Beispieldateien nur wenige Länder enthalten.
+ * <p>
+ * Die Länder werden in Clustern um zufällige Zentren verteilt (normalverteilt), ähnlich wie Regionen auf einer Karte.
+ * Jedes Land erhält bis zu dichte Nachbarn, dafür werden die nächsten Länder mithilfe eines Rasters gesucht.
+ * Bei gleichem Seed wird immer dieselbe Datei erzeugt.
+ *
+ * @author ehamada
+ */
+public class Generator {
+    /**
+     * Attribute:
+     *
+     * @anzahl Anzahl der Länder
+     * @dichte Maximale Anzahl an Nachbarn, die pro Land angegeben werden
+     * @cluster Anzahl der Cluster, in denen die Länder verteilt werden
+     * @seed Startwert des Zufallsgenerators
+     */
+    private final int anzahl;
+    private final int dichte;
+    private final int cluster;
+    private final long seed;
+
+    /**
+     * Konstruktor der Klasse
+     *
+     * @param anzahl  Anzahl der Länder
+     * @param dichte  Maximale Anzahl an Nachbarn, die pro Land angegeben werden
+     * @param cluster Anzahl der Cluster, in denen die Länder verteilt werden
+     * @param seed    Startwert des Zufallsgenerators
+     */
+    public Generator(int anzahl, int dichte, int cluster, long seed) {
+        if (anzahl < 1 || dichte < 0 || cluster < 1) {
+            throw new IllegalArgumentException("Anzahl und Cluster müssen > 0 sein, Dichte >= 0");
+        }
+        this.anzahl = anzahl;
+        this.dichte = dichte;
+        this.cluster = cluster;
+        this.seed = seed;
+    }
+
+    /**
+     * Methode zum Erzeugen einer Datei unter Pfad + Dateiname
+     *
+     * @param datei Dateiname der Datei, die erzeugt werden soll
+     * @param pfad  Pfad zu der Datei
+     * @throws IOException Falls Fehler beim Schreiben auftreten
+     */
+    public void erzeuge(String datei, String pfad) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(Paths.get(pfad + datei), StandardCharsets.UTF_8)) {    //Einlesen liest immer UTF-8
+            erzeuge(writer);
+        }
+    }
+
+    /**
+     * Methode zum Erzeugen der Eingabe. Es werden zuerst alle Länder und danach die Nachbarschaften geschrieben.
+     *
+     * @param writer Writer, in den die Eingabe geschrieben wird
+     * @throws IOException Falls Fehler beim Schreiben auftreten
+     */
+    public void erzeuge(Writer writer) throws IOException {
+        Random random = new Random(this.seed);
+        //Zentren und Streuung der Cluster, die Fläche wächst mit der Anzahl der Länder, damit die Dichte ungefähr gleich bleibt
+        double flaeche = Math.sqrt(this.anzahl) * 2;
+        double[] zentrumX = new double[this.cluster];
+        double[] zentrumY = new double[this.cluster];
+        for (int c = 0; c < this.cluster; c++) {
+            zentrumX[c] = random.nextDouble() * flaeche;
+            zentrumY[c] = random.nextDouble() * flaeche;
+        }
+        double streuung = flaeche / Math.sqrt(this.cluster) / 3;
+
+        double[] x = new double[this.anzahl];
+        double[] y = new double[this.anzahl];
+        HashSet<String> belegt = new HashSet<>();   //Einlesen lehnt Länder mit derselben Lage ab
+        writer.write("Synthetische Daten\n# Staat Kennwert Laengengrad Breitengrad\n");
+        for (int i = 0; i < this.anzahl; i++) {
+            int c = random.nextInt(this.cluster);
+            String lage;
+            do {
+                x[i] = runde(zentrumX[c] + random.nextGaussian() * streuung);
+                y[i] = runde(zentrumY[c] + random.nextGaussian() * streuung);
+                lage = x[i] + " " + y[i];
+            } while (!belegt.add(lage));
+            writer.write(String.format(Locale.ROOT, "L%d %d %.6f %.6f\n", i, 1 + random.nextInt(1000), x[i], y[i]));
+        }
+
+        writer.write("# Nachbarschaften\n");
+        if (this.dichte == 0) {
+            return;
+        }
+        //Suche die nächsten Länder im Raster, die Zellgröße ist so gewählt, dass in den umliegenden Zellen im Mittel genug Länder liegen
+        double zellGroesse = flaeche * Math.sqrt((double) this.dichte / this.anzahl);
+        Raster raster = new Raster(zellGroesse);
+        raster.baue(x, y, this.anzahl);
+        Raster.Treffer treffer = new Raster.Treffer();
+        ArrayList<Integer> kandidaten = new ArrayList<>();
+        StringBuilder zeile = new StringBuilder();
+        for (int i = 0; i < this.anzahl; i++) {
+            raster.suche(x[i], y[i], treffer);
+            kandidaten.clear();
+            for (int k = 0; k < treffer.anzahl; k++) {
+                if (treffer.index[k] > i) {     //Jede Nachbarschaft nur einmal angeben, Einlesen ergänzt die Gegenrichtung
+                    kandidaten.add(treffer.index[k]);
+                }
+            }
+            final int land = i;
+            kandidaten.sort((a, b) -> Double.compare(abstand(x, y, land, a), abstand(x, y, land, b)));
+            int nachbarn = Math.min(kandidaten.size(), 1 + random.nextInt(this.dichte));
+            if (nachbarn == 0) {
+                continue;
+            }
+            zeile.setLength(0);
+            zeile.append('L').append(i).append(':');
+            for (int k = 0; k < nachbarn; k++) {
+                zeile.append(" L").append(kandidaten.get(k));
+            }
+            writer.write(zeile.append('\n').toString());
+        }
+    }
+
+    /**
+     * Rundet auf 6 Nachkommastellen, damit die Lage in der Datei der berechneten entspricht
+     */
+    private static double runde(double wert) {
+        return Math.round(wert * 1e6) / 1e6;
+    }
+
+    /**
+     * Berechnet das Quadrat des Abstands zweier Länder
+     */
+    private static double abstand(double[] x, double[] y, int i, int j) {
+        return (x[i] - x[j]) * (x[i] - x[j]) + (y[i] - y[j]) * (y[i] - y[j]);
+    }
+
+    /**
+     * Main Methode zum Erzeugen einer Datei von der Kommandozeile
+     *
+     * @param args Anzahl der Länder, Dateiname, optional Pfad, Dichte (Default 4), Anzahl der Cluster (Default 8) und Seed (Default 1)
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Aufruf: java Generator anzahl datei [pfad] [dichte] [cluster] [seed]");
+            System.exit(1);
+        }
+        String pfad = args.length > 2 ? args[2] : "";
+        int dichte = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        int cluster = args.length > 4 ? Integer.parseInt(args[4]) : 8;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 1;
+        new Generator(Integer.parseInt(args[0]), dichte, cluster, seed).erzeuge(args[1], pfad);
+    }
+}
@@ -0,0 +1,96 @@
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Prüfung des Vektorkerns (siehe {@link Kern}) gegen den skalaren Kern. Zuerst wie beim Laden mit {@link Kern#stimmtUeberein(Kern, Kern)}
+ * auf zufälligen Daten, danach auf einer synthetischen Eingabe für jeden Modus, in dem der Kern genutzt wird:
+ * ohne Kern, mit SkalarKern und mit VektorKern werden jeweils ITERATIONEN Iterationen gerechnet.
+ * SkalarKern muss genau dasselbe Layout liefern wie ohne Kern, VektorKern bis auf TOLERANZ, da er die Summanden
+ * in anderer Reihenfolge addieren darf.
+ * <p>
+ * Aufruf: <code>java --add-modules jdk.incubator.vector -cp out KernVergleich</code> (übersetzt mit src-vector, siehe Kern).
+ * Ohne Vektorkern wird nur SkalarKern geprüft. Endet mit ExitCode 1, wenn ein Kern abweicht.
+ *
+ * @author ehamada
+ */
+public class KernVergleich {
+    /**
+     * Attribute:
+     *
+     * @ITERATIONEN Anzahl der Iterationen jedes Laufs, wenige, da sich Rundungsfehler über viele Iterationen aufschaukeln
+     * @TOLERANZ Größte erlaubte Abweichung einer Koordinate des Vektorkerns
+     */
+    private static final int ITERATIONEN = 200;
+    private static final double TOLERANZ = 1e-6;
+
+    public static void main(String[] args) throws Exception {
+        Kern vektor;
+        try {
+            vektor = (Kern) Class.forName("VektorKern").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {   //Wie in Kern.vektor
+            System.out.println("Vektorkern nicht verfügbar (src-vector und --add-modules jdk.incubator.vector), prüfe nur SkalarKern");
+            vektor = null;
+        }
+        boolean abweichung = false;
+        if (vektor != null && !Kern.stimmtUeberein(new SkalarKern(), vektor)) {
+            System.out.println("VektorKern stimmt auf zufälligen Daten nicht mit SkalarKern überein");
+            abweichung = true;
+        }
+
+        File ordner = Files.createTempDirectory("kerne").toFile();
+        String pfad = ordner.getPath() + File.separator;
+        String datei = "kerne";
+        new Generator(1000, 4, 1, 1).erzeuge(datei, pfad);
+        //Sequentiell mit FEST nutzt den Kern nur für die Überlappungen, gleichzeitig auch für die Verschiebungen
+        String[] modi = {"fest", "fest parallel", "adaptiv"};
+        for (String modus : modi) {
+            double[][] ohne = rechne(datei, pfad, modus, null);
+            double skalar = abstand(ohne, rechne(datei, pfad, modus, new SkalarKern()));
+            System.out.printf(Locale.ROOT, "%s: SkalarKern %.3e", modus, skalar);
+            abweichung |= skalar != 0;
+            if (vektor != null) {
+                double abstand = abstand(ohne, rechne(datei, pfad, modus, vektor));
+                System.out.printf(Locale.ROOT, ", VektorKern %.3e", abstand);
+                abweichung |= !(abstand <= TOLERANZ);
+            }
+            System.out.println();
+        }
+        new File(pfad + datei).delete();
+        ordner.delete();
+        if (abweichung) {
+            System.out.println("Kerne weichen ab");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return Returns Koordinaten nach ITERATIONEN Iterationen im Modus, x in [0] und y in [1]
+     */
+    private static double[][] rechne(String datei, String pfad, String modus, Kern kern) throws Exception {
+        ArrayList<Land> laender = new Einlesen().leseDatei(datei, pfad);
+        Algorithmus algorithmus = new Algorithmus();
+        algorithmus.setMaxIterationen(ITERATIONEN);
+        algorithmus.setKern(kern);
+        if (modus.endsWith("parallel")) {
+            algorithmus.setParallel(2);
+        }
+        algorithmus.setStrategie(Strategie.valueOf(modus.split(" ")[0].toUpperCase()));
+        algorithmus.berechne(laender);
+        return Pruefung.lage(laender);
+    }
+
+    /**
+     * @return Returns größte Abweichung einer Koordinate zwischen zwei Layouts
+     */
+    private static double abstand(double[][] a, double[][] b) {
+        double max = 0;
+        for (int k = 0; k < 2; k++) {
+            for (int i = 0; i < a[k].length; i++) {
+                max = Math.max(max, Math.abs(a[k][i] - b[k][i]));
+            }
+        }
+        return max;
+    }
+}
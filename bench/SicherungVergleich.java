@@ -0,0 +1,119 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Prüfung der Sicherung (siehe {@link Sicherung}): eine Berechnung wird nach der ersten Sicherung hart beendet
+ * (wie mit kill -9) und mit --resume fortgesetzt. Die Ausgabedatei muss Byte für Byte gleich der eines Laufs
+ * ohne Unterbrechung sein und die Sicherung danach gelöscht. Geprüft wird für jeden Modus in MODI,
+ * jeder Lauf ist ein eigener Prozess mit Main und demselben Klassenpfad.
+ * Zuletzt wird nach der Unterbrechung eine Koordinate der Eingabe geändert: --resume muss dann mit ExitCode 1 abbrechen
+ * und die Sicherung erhalten.
+ * <p>
+ * Aufruf: <code>java -cp out SicherungVergleich</code>, endet mit ExitCode 1, wenn ein Modus abweicht.
+ *
+ * @author ehamada
+ */
+public class SicherungVergleich {
+    /**
+     * Attribute:
+     *
+     * @MODI Optionen der geprüften Modi: sequentiell, gleichzeitig mit einem anderen Verfahren und parallel
+     * @INTERVALL Iterationen zwischen zwei Sicherungen, klein genug, dass die erste lange vor dem Ende geschrieben wird
+     */
+    private static final String[][] MODI = {{}, {"--strategie=abkuehlung"}, {"--parallel=2"}};
+    private static final int INTERVALL = 1000;
+
+    public static void main(String[] args) throws Exception {
+        File ordner = Files.createTempDirectory("sicherung").toFile();
+        String pfad = ordner.getPath() + File.separator;
+        String datei = "unterbrochen";
+        new Generator(60, 1, 4, 3).erzeuge(datei, pfad);
+        File ausgabe = new File(pfad + datei + ".out");
+        File sicherung = new File(pfad + datei + ".sicherung");
+
+        boolean abweichung = false;
+        for (String[] modus : MODI) {
+            starte(pfad, datei, modus).waitFor();
+            byte[] erwartet = Files.readAllBytes(ausgabe.toPath());
+            ausgabe.delete();
+
+            Process lauf = starte(pfad, datei, modus, "--sicherung=" + INTERVALL);
+            while (lauf.isAlive() && !gesichert(sicherung)) {
+                Thread.sleep(5);
+            }
+            boolean unterbrochen = lauf.isAlive();
+            lauf.destroyForcibly().waitFor();
+            starte(pfad, datei, modus, "--resume", "--sicherung=" + INTERVALL).waitFor();
+            byte[] ergebnis = Files.readAllBytes(ausgabe.toPath());
+
+            String name = modus.length > 0 ? String.join(" ", modus) : "sequentiell";
+            if (!unterbrochen) {
+                System.out.println(name + ": Berechnung war vor der ersten Sicherung fertig");
+                abweichung = true;
+            } else if (!Arrays.equals(erwartet, ergebnis)) {
+                System.out.println(name + ": Ausgabe nach --resume weicht ab");
+                abweichung = true;
+            } else if (sicherung.exists()) {
+                System.out.println(name + ": Sicherung wurde nicht gelöscht");
+                abweichung = true;
+            } else {
+                System.out.println(name + ": gleich");
+            }
+            ausgabe.delete();
+            sicherung.delete();
+        }
+
+        Process lauf = starte(pfad, datei, new String[0], "--sicherung=" + INTERVALL);
+        while (lauf.isAlive() && !gesichert(sicherung)) {
+            Thread.sleep(5);
+        }
+        lauf.destroyForcibly().waitFor();
+        File eingabe = new File(pfad + datei);
+        List<String> zeilen = Files.readAllLines(eingabe.toPath());
+        String[] land = zeilen.get(2).trim().split("\\s+");   //Erstes Land nach Titel und Kopfzeile
+        land[2] = String.valueOf(Double.parseDouble(land[2]) + 1);
+        zeilen.set(2, String.join(" ", land));
+        Files.write(eingabe.toPath(), zeilen);
+        int exitCode = starte(pfad, datei, new String[0], "--resume", "--sicherung=" + INTERVALL).waitFor();
+        if (exitCode != 1 || !sicherung.exists()) {
+            System.out.println("geänderte Eingabe: --resume endet mit " + exitCode + (sicherung.exists() ? "" : ", Sicherung gelöscht"));
+            abweichung = true;
+        } else {
+            System.out.println("geänderte Eingabe: abgewiesen");
+        }
+        ausgabe.delete();
+        sicherung.delete();
+        eingabe.delete();
+        ordner.delete();
+        if (abweichung) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return Returns Prozess mit Main für die Datei im Pfad mit den Optionen, seine Ausgaben gehen auf die Konsole
+     */
+    private static Process starte(String pfad, String datei, String[] modus, String... optionen) throws IOException {
+        List<String> befehl = new ArrayList<>(Arrays.asList(ProcessHandle.current().info().command().orElse("java"),
+                "-cp", System.getProperty("java.class.path"), "Main", datei, pfad));
+        befehl.addAll(Arrays.asList(modus));
+        befehl.addAll(Arrays.asList(optionen));
+        return new ProcessBuilder(befehl).redirectOutput(ProcessBuilder.Redirect.DISCARD).redirectErrorStream(true).start();
+    }
+
+    /**
+     * @return Returns true, wenn die Sicherungsdatei existiert und ihr Kopf bereits geschrieben wurde
+     */
+    private static boolean gesichert(File sicherung) {
+        try (RandomAccessFile f = new RandomAccessFile(sicherung, "r")) {
+            return f.length() >= 8 && f.readLong() != 0;
+        } catch (IOException e) {   //Noch nicht angelegt
+            return false;
+        }
+    }
+}
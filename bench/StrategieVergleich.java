@@ -0,0 +1,61 @@
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Prüfung der Verfahren für die Schrittweite (siehe {@link Strategie}) auf einer synthetischen Eingabe,
+ * auf der die gemerkten Abstoßungen vergangener Überlappungen die Länder immer weiter auseinanderschieben (Generator 200 g200 ./ 1 8 3).
+ * Dort darf kein Verfahren schlechter enden als FEST: die mittlere Verschiebung zur geographischen Lage (siehe {@link Pruefung})
+ * und die Anzahl der Überlappungen dürfen höchstens TOLERANZ mal so groß sein wie bei FEST.
+ * Die Toleranz ist nötig, da jedes Verfahren andere Überlappungen durchläuft und sich damit andere Abstoßungen merkt.
+ * Alle Verfahren fallen dort auf FEST zurück ("zuletzt FEST"), die Prüfung zeigt also nur, dass der Rückfall eine Verschlechterung
+ * verhindert, nicht dass Iterationen gespart werden.
+ * Vor der Begrenzung der Schrittweiten endeten ADAPTIV, MOMENTUM und das inzwischen entfernte NESTEROV dort 40 bis 90 mal so weit verschoben wie FEST.
+ * <p>
+ * Aufruf: <code>java -cp out StrategieVergleich [maxIterationen]</code>, endet mit ExitCode 1, wenn ein Verfahren schlechter ist.
+ *
+ * @author ehamada
+ */
+public class StrategieVergleich {
+    /**
+     * Attribute:
+     *
+     * @ITERATIONEN Default für die maximale Anzahl an Iterationen jedes Verfahrens
+     * @TOLERANZ Faktor, um den Verschiebung und Überlappungen eines Verfahrens über denen von FEST liegen dürfen
+     */
+    private static final int ITERATIONEN = 30000;
+    private static final double TOLERANZ = 2;
+
+    public static void main(String[] args) throws Exception {
+        int maxIterationen = args.length > 0 ? Integer.parseInt(args[0]) : ITERATIONEN;
+        File ordner = Files.createTempDirectory("strategien").toFile();
+        String pfad = ordner.getPath() + File.separator;
+        String datei = "g200";
+        new Generator(200, 1, 8, 3).erzeuge(datei, pfad);
+
+        Pruefung fest = null;
+        boolean schlechter = false;
+        for (Strategie strategie : Strategie.values()) {   //FEST ist das erste Verfahren
+            ArrayList<Land> laender = new Einlesen().leseDatei(datei, pfad);
+            double[][] lage = Pruefung.lage(laender);
+            Algorithmus algorithmus = new Algorithmus();
+            algorithmus.setStrategie(strategie);
+            algorithmus.setMaxIterationen(maxIterationen);
+            Ergebnis e = algorithmus.berechne(laender);
+            Pruefung p = Pruefung.pruefe(laender, lage);
+            System.out.printf(Locale.ROOT, "%s: %d Iterationen, epsilon %.6f, zuletzt %s, %s%n", strategie, e.iterationen, e.epsilon, e.strategie, p);
+            if (fest == null) {
+                fest = p;
+            } else if (p.mittlereVerschiebung > TOLERANZ * fest.mittlereVerschiebung || p.ueberlappungen > TOLERANZ * fest.ueberlappungen) {
+                System.out.println(strategie + " endet schlechter als FEST");
+                schlechter = true;
+            }
+        }
+        new File(pfad + datei).delete();
+        ordner.delete();
+        if (schlechter) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Rechenkern mit der Vector API. Berechnet die Kräfte bzw. Verschiebungen für mehrere Partner gleichzeitig,
+ * so viele wie in ein Vektorregister der CPU passen (4 bei AVX2, 8 bei AVX-512). Die Koordinaten der Partner
+ * werden dafür über ihre Indizes aus den Arrays geladen (Gather). Reste, die keinen ganzen Vektor füllen, werden skalar berechnet.
+ * <p>
+ * Die Kräfte der Überlappungen werden mit denselben Operationen in derselben Reihenfolge berechnet wie skalar
+ * und sind daher bitgenau gleich. Die Summen der Verschiebungen werden pro Spur gebildet und erst am Ende addiert,
+ * sie weichen daher um Rundungsfehler ab.
+ * <p>
+ * Muss mit <code>--add-modules jdk.incubator.vector</code> übersetzt und ausgeführt werden, siehe {@link Kern}.
+ *
+ * @author ehamada
+ */
+public class VektorKern implements Kern {
+    /**
+     * Attribute:
+     *
+     * @ART Vektorgröße, die von der CPU am besten unterstützt wird
+     */
+    private static final VectorSpecies<Double> ART = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public int ueberlappungen(double[] x, double[] y, double[] radius, int i, Raster.Treffer treffer) {
+        treffer.reserviereKraft();
+        int[] index = treffer.index;
+        double[] kraft = treffer.kraft;
+        DoubleVector xi = DoubleVector.broadcast(ART, x[i]);
+        DoubleVector yi = DoubleVector.broadcast(ART, y[i]);
+        DoubleVector ri = DoubleVector.broadcast(ART, radius[i]);
+        int gefunden = 0;
+        int k = 0;
+        for (int grenze = ART.loopBound(treffer.anzahl); k < grenze; k += ART.length()) {
+            DoubleVector dx = DoubleVector.fromArray(ART, x, 0, index, k).sub(xi);
+            DoubleVector dy = DoubleVector.fromArray(ART, y, 0, index, k).sub(yi);
+            DoubleVector summeRadien = DoubleVector.fromArray(ART, radius, 0, index, k).add(ri);
+            DoubleVector f = dx.mul(dx).add(dy.mul(dy)).sqrt().sub(summeRadien);
+            VectorMask<Double> ueberlappt = f.compare(VectorOperators.LT, 0.0);
+            if (!ueberlappt.anyTrue()) {
+                continue;
+            }
+            //Die Kräfte werden an ihre Position geschrieben und dann nach vorne kopiert, gefunden ist nie größer als k
+            f.intoArray(kraft, k);
+            for (long bits = ueberlappt.toLong(); bits != 0; bits &= bits - 1) {
+                int spur = Long.numberOfTrailingZeros(bits);
+                int j = index[k + spur];
+                if (j != i) {
+                    index[gefunden] = j;
+                    kraft[gefunden++] = kraft[k + spur];
+                }
+            }
+        }
+        for (; k < treffer.anzahl; k++) {
+            int j = index[k];
+            if (j != i) {
+                double f = Algorithmus.kraft(x, y, radius, i, j);
+                if (f < 0) {
+                    index[gefunden] = j;
+                    kraft[gefunden++] = f;
+                }
+            }
+        }
+        return gefunden;
+    }
+
+    @Override
+    public void verschiebung(double[] x, double[] y, int i, int[] partner, double[] kraft, int anzahl, double value,
+                             double[] verschiebungX, double[] verschiebungY) {
+        DoubleVector xi = DoubleVector.broadcast(ART, x[i]);
+        DoubleVector yi = DoubleVector.broadcast(ART, y[i]);
+        DoubleVector summeX = DoubleVector.zero(ART);
+        DoubleVector summeY = DoubleVector.zero(ART);
+        int k = 0;
+        for (int grenze = ART.loopBound(anzahl); k < grenze; k += ART.length()) {
+            DoubleVector dx = DoubleVector.fromArray(ART, x, 0, partner, k).sub(xi);
+            DoubleVector dy = DoubleVector.fromArray(ART, y, 0, partner, k).sub(yi);
+            DoubleVector d = dx.mul(dx).add(dy.mul(dy)).sqrt();
+            DoubleVector faktor = DoubleVector.fromArray(ART, kraft, k).mul(value).div(d);
+            summeX = summeX.add(faktor.mul(dx));
+            summeY = summeY.add(faktor.mul(dy));
+        }
+        double sx = summeX.reduceLanes(VectorOperators.ADD);
+        double sy = summeY.reduceLanes(VectorOperators.ADD);
+        for (; k < anzahl; k++) {
+            int j = partner[k];
+            double d = Math.sqrt((x[j] - x[i]) * (x[j] - x[i]) + (y[j] - y[i]) * (y[j] - y[i]));
+            sx += kraft[k] * value / d * (x[j] - x[i]);
+            sy += kraft[k] * value / d * (y[j] - y[i]);
+        }
+        verschiebungX[i] = sx;
+        verschiebungY[i] = sy;
+    }
+}
@@ -0,0 +1,15 @@
+/**
+ * Grund, aus dem das Iterationsverfahren beendet wurde.
+ * <p>
+ * KONVERGIERT - epsilon ist unter die Abbruchschwelle gefallen <br>
+ * STAGNATION - die Qualität hat sich über längere Zeit nicht mehr verbessert (nur mit Zeitbudget) <br>
+ * MAX_ITERATIONEN - die maximale Anzahl an Iterationen wurde erreicht <br>
+ * ZEIT - das Zeitbudget ist abgelaufen (siehe {@link Zeitbudget})
+ * <p>
+ * Werden mehrere Teilmodelle berechnet, gilt der letzte Grund in dieser Reihenfolge, der bei einem Teilmodell aufgetreten ist.
+ *
+ * @author ehamada
+ */
+public enum Abbruch {
+    KONVERGIERT, STAGNATION, MAX_ITERATIONEN, ZEIT
+}
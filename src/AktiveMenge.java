@@ -0,0 +1,159 @@
+import java.util.Arrays;
+
+/**
+ * Menge der aktiven Länder für das Iterationsverfahren mit Einfrieren. Länder, die sich über mehrere Iterationen
+ * kaum bewegt haben, werden eingefroren: ihre Kräfte werden nicht mehr berechnet und sie werden nicht mehr verschoben.
+ * Bewegt sich ein Partner eines eingefrorenen Landes (Nachbar oder Land, mit dem es sich schon überlappt hat),
+ * wird es wieder aktiviert. Ein überlappendes Land wird bei der Kräfteberechnung zum Partner. Überlappt ein aktives Land
+ * ein eingefrorenes, wird dieses auch dann geweckt, wenn sich das aktive Land nicht mehr bewegt, damit die Überlappung aufgelöst wird.
+ * Gegen Ende des Iterationsverfahrens kostet eine Iteration dadurch nur so viel, wie Länder sich noch bewegen.
+ * <p>
+ * Die Schwelle pro Land ist ein Zehntel der Abbruchschwelle. Eingefrorene Länder zählen nicht zu epsilon, daher wird nur nach einer Iteration
+ * über alle Länder abgebrochen: fällt epsilon mit eingefrorenen Ländern unter die Abbruchschwelle, rechnet das Iterationsverfahren
+ * ohne Einfrieren weiter. Das Ergebnis weicht trotzdem leicht vom normalen sequentiellen Modus ab, da die eingefrorenen Länder
+ * zwischendurch nicht verschoben wurden (bei Beispiel3 um weniger als 0.015 bei Radien ab 3, 26917 statt 26509 Iterationen).
+ * Schneller ist das nur, wenn viele Länder lange ruhig sind: bei den Beispielen ist kein Gewinn messbar (die Laufzeiten mit und
+ * ohne Einfrieren schwanken gleich stark), bei Eingaben, die nicht konvergieren (z.B. Generator 200 g200 ./ 1 8 3),
+ * wird nie ein Land eingefroren. Das Einfrieren ist deshalb nur eine Option (--einfrieren) und nicht der Default.
+ * Die aktiven Länder werden immer aufsteigend sortiert verschoben, wie im normalen sequentiellen Modus.
+ *
+ * @author ehamada
+ */
+public class AktiveMenge {
+    /**
+     * Attribute:
+     *
+     * @schwelle Bewegung, unter der ein Land in einer Iteration als ruhig gilt
+     * @liste Indizes der aktiven Länder, aufsteigend sortiert
+     * @anzahl Anzahl der aktiven Länder
+     * @ruhig Anzahl der Iterationen, in denen sich das Land und seine Partner zuletzt nicht bewegt haben
+     * @gefroren true, wenn das Land eingefroren ist
+     * @geweckt Länder, die in der aktuellen Iteration wieder aktiviert wurden
+     * @rasterX x Koordinaten, mit denen die Länder im Raster stehen
+     * @rasterY y Koordinaten, mit denen die Länder im Raster stehen
+     * @RUHE Anzahl der ruhigen Iterationen, nach denen ein Land eingefroren wird
+     * @ANTEIL Anteil der Abbruchschwelle, unter dem sich ein Land in einer Iteration bewegen muss, um als ruhig zu gelten
+     */
+    private final double schwelle;
+    private int[] liste;
+    private int anzahl;
+    private final int[] ruhig;
+    private final boolean[] gefroren;
+    private int[] geweckt = new int[16];
+    private int anzahlGeweckt = 0;
+    private final double[] rasterX;
+    private final double[] rasterY;
+    private static final int RUHE = 20;
+    private static final double ANTEIL = 0.1;
+
+    /**
+     * Konstruktor der Klasse, zu Beginn sind alle Länder aktiv. Das Raster muss mit den aktuellen Koordinaten des Modells aufgebaut sein.
+     *
+     * @param modell          Modell, auf dem iteriert wird
+     * @param abbruchSchwelle Abbruchschwelle des Iterationsverfahrens
+     */
+    public AktiveMenge(Modell modell, double abbruchSchwelle) {
+        this.rasterX = modell.x.clone();
+        this.rasterY = modell.y.clone();
+        this.schwelle = abbruchSchwelle * ANTEIL;
+        this.liste = new int[modell.anzahl];
+        for (int i = 0; i < modell.anzahl; i++) {
+            this.liste[i] = i;
+        }
+        this.anzahl = modell.anzahl;
+        this.ruhig = new int[modell.anzahl];
+        this.gefroren = new boolean[modell.anzahl];
+    }
+
+    /**
+     * @return Returns Anzahl der aktiven Länder
+     */
+    public int anzahl() {
+        return this.anzahl;
+    }
+
+    /**
+     * @param k Position in der Liste der aktiven Länder
+     * @return Returns Index des k-ten aktiven Landes
+     */
+    public int land(int k) {
+        return this.liste[k];
+    }
+
+    /**
+     * Methode zum Auswerten einer Iteration, ersetzt die Berechnung von epsilon über alle Länder.
+     * Für jedes aktive Land wird die Bewegung berechnet, das Raster aktualisiert und die alten Punkte gesetzt.
+     * Hat sich ein Land bewegt, werden seine Partner (wieder) aktiviert, sonst nur die eingefrorenen Partner, mit denen es sich überlappt.
+     * Danach werden die Länder eingefroren, die lange genug ruhig waren.
+     *
+     * @param modell  Modell nach dem Verschieben der aktiven Länder
+     * @param kraefte Kräfte mit den Partnern jedes Landes
+     * @param raster  Raster mit den Koordinaten vor dem Verschieben, wird für die verschobenen Länder aktualisiert
+     * @return Returns Summe der Abstände zwischen alten und neuen Punkten der aktiven Länder
+     */
+    public double aktualisiere(Modell modell, Kraefte kraefte, Raster raster) {
+        double summe = 0;
+        for (int k = 0; k < this.anzahl; k++) {
+            int i = this.liste[k];
+            double dx = modell.x[i] - modell.altX[i];
+            double dy = modell.y[i] - modell.altY[i];
+            double bewegung = Math.sqrt(dx * dx + dy * dy);
+            summe += bewegung;
+            raster.verschiebe(i, this.rasterX[i], this.rasterY[i], modell.x[i], modell.y[i]);
+            this.rasterX[i] = modell.x[i];
+            this.rasterY[i] = modell.y[i];
+            modell.altX[i] = modell.x[i];
+            modell.altY[i] = modell.y[i];
+            if (bewegung < this.schwelle) {
+                this.ruhig[i]++;
+                //Ein ruhiges Land, das auf einem eingefrorenen liegt (z.B. zwischen Anziehung und Abstoßung zur Ruhe gekommen),
+                // weckt es trotzdem, sonst bliebe die Überlappung bestehen
+                for (int p = 0; p < kraefte.anzahl(i); p++) {
+                    int j = kraefte.partner(i, p);
+                    if (this.gefroren[j] && Algorithmus.kraft(modell.x, modell.y, modell.radius, i, j) < 0) {
+                        wecke(j);
+                    }
+                }
+                continue;
+            }
+            this.ruhig[i] = 0;
+            //Überlappt sich das Land mit einem eingefrorenen Land, wird dieses in der Kräfteberechnung zum Partner
+            // und spätestens in der nächsten Iteration geweckt
+            for (int p = 0; p < kraefte.anzahl(i); p++) {
+                wecke(kraefte.partner(i, p));
+            }
+        }
+        //Neue Liste: aktive Länder, die noch nicht lange genug ruhig waren, und die geweckten Länder
+        int neu = 0;
+        for (int k = 0; k < this.anzahl; k++) {
+            int i = this.liste[k];
+            if (this.ruhig[i] >= RUHE) {
+                this.gefroren[i] = true;
+            } else {
+                this.liste[neu++] = i;
+            }
+        }
+        if (this.anzahlGeweckt > 0) {
+            System.arraycopy(this.geweckt, 0, this.liste, neu, this.anzahlGeweckt);
+            neu += this.anzahlGeweckt;
+            Arrays.sort(this.liste, 0, neu);
+            this.anzahlGeweckt = 0;
+        }
+        this.anzahl = neu;
+        return summe;
+    }
+
+    /**
+     * Methode zum Aktivieren eines Landes. Ein aktives Land beginnt wieder von vorne, ruhige Iterationen zu zählen.
+     */
+    private void wecke(int j) {
+        this.ruhig[j] = 0;
+        if (this.gefroren[j]) {
+            this.gefroren[j] = false;
+            if (this.anzahlGeweckt == this.geweckt.length) {
+                this.geweckt = Arrays.copyOf(this.geweckt, this.anzahlGeweckt * 2);
+            }
+            this.geweckt[this.anzahlGeweckt++] = j;
+        }
+    }
+}
@@ -1,11 +1,19 @@
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Klasse des Hauptalgorithmus,
  * welcher per Iterationsverfahren die Punkte der Länder entsprechend der daraufwirkenden Kräfte verschiebt,
- * um überlappende Kreise zu vermeiden und Abstände zwischen benachbarten Ländern zu minimieren
+ * um überlappende Kreise zu vermeiden und Abstände zwischen benachbarten Ländern zu minimieren.
+ * Der Zustand einer Berechnung wird nur in lokalen Variablen gehalten, eine Instanz kann also
+ * von mehreren Threads gleichzeitig für verschiedene Listen von Ländern genutzt werden.
  *
  * @author ehamada
  */
@@ -13,110 +21,1045 @@ public class Algorithmus {
     /**
      * Attribute:
      *
-     * matrix Matrix der Kräfte, die von jedem Land auf jedes andere wirken
-     * epsilon Doublewert, der die Veränderung zwischen zwei Iterationen berechnet
-     * altePunkte Liste der Länder der vorherigen Iteration, bei der ersten entsprechen Koordinaten denen der Startländer
      * abbruchSchwelle Wert, wenn epsilon den Wert unterschreitet, wird das Iterationsverfahren beendet
+     * maxIterationen Maximale Anzahl an Iterationen, danach wird das Iterationsverfahren auch ohne die gewünschte Genauigkeit beendet
+     * threads Anzahl der Threads für den parallelen Modus, 0 für den sequentiellen Modus
+     * strategie Verfahren, mit dem die Kräfte auf die Koordinaten angewendet werden
+     * listener Listener, der nach jeder Iteration die Messwerte erhält, null wenn nichts gemessen werden soll
+     * komponenten true, wenn die Zusammenhangskomponenten des Nachbarschaftsgraphen einzeln berechnet werden
+     * mehrstufig true, wenn das mehrstufige Verfahren (Vergröbern und Verfeinern) genutzt wird
+     * einfrieren true, wenn Länder, die sich nicht mehr bewegen, eingefroren werden
+     * kern Rechenkern für Überlappungen und Verschiebungen, null für die skalare Berechnung
+     * zeitbudget Zeitbudget in Millisekunden für jeden Aufruf von berechne, 0 ohne Zeitbudget
+     * BLOCK Anzahl der Länder, die im parallelen Modus mindestens von einem Task berechnet werden
+     * SKALIERUNG Faktor, mit dem die Längen- und Breitengrade in der Voriteration multipliziert werden
      */
-    private Double[][] matrix;
-    private double epsilon;
-    private ArrayList<Land> altePunkte = new ArrayList<>();
     private double abbruchSchwelle = 0.0005;
+    private int maxIterationen = 100000;
+    private int threads = 0;
+    private Strategie strategie = Strategie.FEST;
+    private IterationsListener listener = null;
+    private boolean komponenten = false;
+    private boolean mehrstufig = false;
+    private boolean einfrieren = false;
+    private Kern kern = null;
+    private long zeitbudget = 0;
+    private static final int BLOCK = 256;
+    static final int SKALIERUNG = 10;
+
+    /**
+     * Setter für die maximale Anzahl an Iterationen. Wird z.B. vom Benchmark genutzt, um einzelne Iterationen zu messen.
+     *
+     * @param maxIterationen Maximale Anzahl an Iterationen, mindestens 1
+     */
+    public void setMaxIterationen(int maxIterationen) {
+        if (maxIterationen < 1) {
+            throw new IllegalArgumentException("Es muss mindestens eine Iteration durchgeführt werden");
+        }
+        this.maxIterationen = maxIterationen;
+    }
+
+    /**
+     * Methode zum Einschalten des parallelen Modus. Im parallelen Modus werden die Kräfte aller Länder
+     * mit den Koordinaten zu Beginn der Iteration berechnet und die Verschiebungen in einen zweiten Puffer geschrieben,
+     * der erst danach auf die Koordinaten angewendet wird. Dadurch hängt das Ergebnis nicht mehr von der Reihenfolge der Länder ab
+     * und ist für jede Anzahl an Threads bitgenau gleich. Es unterscheidet sich aber leicht vom sequentiellen Modus,
+     * in dem spätere Länder bereits die neuen Koordinaten der vorherigen sehen.
+     *
+     * @param threads Anzahl der Threads, 0 für den sequentiellen Modus
+     */
+    public void setParallel(int threads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("Anzahl der Threads kann nicht negativ sein");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Setter für den Listener, der nach jeder Iteration Messwerte erhält (siehe {@link Messwerte}).
+     * Ohne Listener werden keine Messwerte berechnet.
+     *
+     * @param listener Listener, null um die Messung auszuschalten
+     */
+    public void setListener(IterationsListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Methode zum Einschalten der Zerlegung in Zusammenhangskomponenten (siehe {@link Komponenten}).
+     * Jede Komponente wird als eigenes Modell berechnet, mehrere Komponenten gleichzeitig mit einem Thread pro Prozessor.
+     * Danach werden die Komponenten verschoben, bis sie sich nicht mehr überlappen.
+     * Die Laufzeit hängt dann von der größten Komponente ab und nicht mehr von allen Ländern.
+     * Überlappungen zwischen Komponenten wirken während der Iteration nicht, das Ergebnis unterscheidet sich also vom normalen Modus.
+     * Als Anzahl der Iterationen wird das Maximum über alle Komponenten zurückgegeben.
+     * Der Listener wird nur aufgerufen, wenn es genau eine Komponente gibt.
+     *
+     * @param komponenten true, um die Komponenten einzeln zu berechnen
+     */
+    public void setKomponenten(boolean komponenten) {
+        this.komponenten = komponenten;
+    }
+
+    /**
+     * Methode zum Einschalten des mehrstufigen Verfahrens (siehe {@link Mehrstufig}). Die Länder werden zu gröberen Knoten
+     * zusammengefasst, die gröbste Stufe wird zuerst berechnet und die Ergebnisse werden Stufe für Stufe verfeinert.
+     * Als Anzahl der Iterationen wird die Summe über alle Stufen zurückgegeben. Bei einem Warmstart wird nicht vergröbert,
+     * da die Startkoordinaten dann schon gut sind. Zusammen mit der Zerlegung in Komponenten wird jede Komponente mehrstufig berechnet.
+     *
+     * @param mehrstufig true, um das mehrstufige Verfahren zu nutzen
+     */
+    public void setMehrstufig(boolean mehrstufig) {
+        this.mehrstufig = mehrstufig;
+    }
+
+    /**
+     * Methode zum Einschalten des Einfrierens (siehe {@link AktiveMenge}). Länder, die sich mit ihren Partnern
+     * über mehrere Iterationen nicht mehr bewegt haben, werden nicht mehr berechnet, bis sich in ihrer Umgebung wieder etwas bewegt.
+     * Das Raster wird dann nicht mehr in jeder Iteration neu aufgebaut, sondern nur für die verschobenen Länder aktualisiert.
+     * Wirkt nur im sequentiellen Modus mit dem Verfahren FEST, da die anderen Modi alle Länder gleichzeitig verschieben.
+     *
+     * @param einfrieren true, um ruhige Länder einzufrieren
+     */
+    public void setEinfrieren(boolean einfrieren) {
+        this.einfrieren = einfrieren;
+    }
+
+    /**
+     * @return Returns true, wenn das Einfrieren eingeschaltet ist, aber im eingestellten Modus (parallel oder Verfahren außer FEST) nicht wirkt
+     */
+    public boolean einfrierenOhneWirkung() {
+        return this.einfrieren && gleichzeitig();
+    }
+
+    /**
+     * Setter für den Rechenkern (siehe {@link Kern}), z.B. den Vektorkern aus {@link Kern#vektor()}.
+     * Der Kern wird für die Prüfung auf Überlappung und im parallelen Modus bzw. bei den anderen Verfahren als FEST
+     * für die Summe der Verschiebungen genutzt. Die sequentielle Verschiebung mit FEST bleibt skalar,
+     * da jedes Land dort bereits die neuen Koordinaten der vorherigen sieht.
+     *
+     * @param kern Rechenkern, null für die skalare Berechnung
+     */
+    public void setKern(Kern kern) {
+        this.kern = kern;
+    }
+
+    /**
+     * Setter für das Zeitbudget jedes Aufrufs von berechne (siehe {@link Zeitbudget}).
+     * Für eine Frist pro Aufruf kann stattdessen berechne mit einem Zeitbudget aufgerufen werden.
+     *
+     * @param millis Zeitbudget in Millisekunden, 0 ohne Zeitbudget
+     */
+    public void setZeitbudget(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Zeitbudget kann nicht negativ sein");
+        }
+        this.zeitbudget = millis;
+    }
+
+    /**
+     * Setter für das Verfahren, mit dem die Kräfte auf die Koordinaten angewendet werden. Default ist FEST.
+     *
+     * @param strategie Verfahren, siehe {@link Strategie}
+     */
+    public void setStrategie(Strategie strategie) {
+        this.strategie = strategie;
+    }
+
+    /**
+     * Methode zum Kopieren des Algorithmus mit allen Einstellungen für die Berechnung einer bestimmten Eingabe,
+     * z.B. im Batchbetrieb, in dem mehrere Dateien gleichzeitig berechnet werden.
+     * Der Listener der Kopie kommt von {@link IterationsListener#fuer}, damit seine Ausgaben der Eingabe zugeordnet werden können.
+     *
+     * @param eingabe Name der Eingabe
+     * @return Returns neuer Algorithmus mit denselben Einstellungen
+     */
+    public Algorithmus kopie(String eingabe) {
+        Algorithmus kopie = new Algorithmus();
+        kopie.abbruchSchwelle = this.abbruchSchwelle;
+        kopie.maxIterationen = this.maxIterationen;
+        kopie.threads = this.threads;
+        kopie.strategie = this.strategie;
+        kopie.listener = this.listener != null ? this.listener.fuer(eingabe) : null;
+        kopie.komponenten = this.komponenten;
+        kopie.mehrstufig = this.mehrstufig;
+        kopie.einfrieren = this.einfrieren;
+        kopie.kern = this.kern;
+        kopie.zeitbudget = this.zeitbudget;
+        return kopie;
+    }
 
     /**
      * Methode zum initialen Verschieben der Punkte, bevor die Kräfte berechnet werdene
      */
-    private void vorIteration(ArrayList<Land> laender, double value) {
+    void vorIteration(Modell modell) {
         double rMin = Double.MAX_VALUE;
-        for(Land land: laender) {
-            land.x = land.x * 10;
-            land.y = land.y * 10;
-            rMin = Double.min(rMin,land.radius);
+        for (int i = 0; i < modell.anzahl; i++) {
+            modell.x[i] = modell.x[i] * SKALIERUNG;
+            modell.y[i] = modell.y[i] * SKALIERUNG;
+            rMin = Double.min(rMin, modell.radius[i]);
         }
-        for(Land land:laender){
-            land.radius=3*land.radius/rMin;
+        for (int i = 0; i < modell.anzahl; i++) {
+            modell.radius[i] = 3 * modell.radius[i] / rMin;
         }
 
     }
 
     /**
-     * Hauptmethode zum berechnen der neuen Koordinaten der Länder
+     * Hauptmethode zum berechnen der neuen Koordinaten der Länder.
+     * Die Länder werden dazu in ein Modell aus Arrays übertragen, auf dem die Iteration läuft.
+     * Am Ende werden die neuen Koordinaten und Radien in die Länder zurückgeschrieben.
      *
      * @param laender Liste der Länder, die angepasst werden sollen
      * @return Gibt Anzahl der Iterationen zurück, die benötigt wurden, bis das Iterationsverfahren die gewünschte Genauigkeit erreicht hat
      */
     public int calculate(ArrayList<Land> laender) {
+        return berechne(laender).iterationen;
+    }
+
+    /**
+     * Wie calculate, gibt aber zusätzlich zur Anzahl der Iterationen das epsilon der letzten Iteration zurück.
+     *
+     * @param laender Liste der Länder, die angepasst werden sollen
+     * @return Returns Ergebnis mit Anzahl der Iterationen und epsilon der letzten Iteration
+     */
+    public Ergebnis berechne(ArrayList<Land> laender) {
+        return berechne(laender, null);
+    }
+
+    /**
+     * Wie berechne, startet aber mit den Koordinaten eines vorherigen Ergebnisses (Warmstart).
+     *
+     * @param laender Liste der Länder, die angepasst werden sollen
+     * @param start   Startlayout aus einem vorherigen Ergebnis, null für einen normalen Start
+     * @return Returns Ergebnis mit Anzahl der Iterationen und epsilon der letzten Iteration
+     */
+    public Ergebnis berechne(ArrayList<Land> laender, Startlayout start) {
+        return berechne(laender, start, zeitbudget());
+    }
+
+    /**
+     * @return Returns neues Zeitbudget für einen Aufruf von berechne, wie mit setZeitbudget eingestellt, null ohne Zeitbudget
+     */
+    public Zeitbudget zeitbudget() {
+        return this.zeitbudget > 0 ? Zeitbudget.millis(this.zeitbudget) : null;
+    }
+
+    /**
+     * Wie berechne, aber mit einem Zeitbudget ("anytime"). Das Iterationsverfahren wird spätestens zur Frist beendet,
+     * oder wenn sich die Qualität (Überlappungen plus Lücken zwischen Nachbarn, siehe {@link Qualitaet}) nicht mehr verbessert.
+     * Zurückgegeben wird das beste Layout, das bis dahin gefunden wurde, zusammen mit seiner Qualität.
+     * Ohne Zeitbudget wird wie bisher bis zur Abbruchschwelle iteriert.
+     *
+     * @param laender Liste der Länder, die angepasst werden sollen
+     * @param start   Startlayout aus einem vorherigen Ergebnis, null für einen normalen Start
+     * @param budget  Zeitbudget, null ohne Zeitbudget
+     * @return Returns Ergebnis mit Anzahl der Iterationen, epsilon der letzten Iteration, Grund des Abbruchs und mit Zeitbudget der Qualität
+     */
+    public Ergebnis berechne(ArrayList<Land> laender, Startlayout start, Zeitbudget budget) {
+        Modell modell = new Modell(laender);    //Die alten Punkte im Modell entsprechen zu Beginn den Startländern
+        vorIteration(modell); //wende Voriterationen an, müste normalerweise in Schleife geschehen, allerdings sollte es nur einmal angewendet werden
+        if (start != null) {
+            start.wendeAn(modell, laender);
+        }
+        return rechne(laender, modell, start, budget, null);
+    }
+
+    /**
+     * Wie berechne mit Zeitbudget, sichert aber zusätzlich den Zustand des Iterationsverfahrens regelmäßig (siehe {@link Sicherung}).
+     * Ist bereits eine passende Sicherung vorhanden, wird die Berechnung dort fortgesetzt und liefert dasselbe Ergebnis
+     * wie eine Berechnung ohne Unterbrechung. Nach einer vollständigen Berechnung wird die Sicherung gelöscht.
+     * Mit Sicherung werden die Zusammenhangskomponenten, das mehrstufige Verfahren, das Einfrieren und ein Zeitbudget nicht unterstützt
+     * (das beste Layout und die Iterationen ohne Verbesserung werden nicht gesichert, ein fortgesetzter Lauf wäre also nicht gleich).
+     *
+     * @param laender   Liste der Länder, die angepasst werden sollen
+     * @param start     Startlayout aus einem vorherigen Ergebnis, null für einen normalen Start
+     * @param budget    Zeitbudget, muss null sein
+     * @param sicherung Sicherung des Zustands
+     * @return Returns Ergebnis wie bei berechne mit Zeitbudget
+     * @throws Sicherungsfehler Falls die Optionen keine Sicherung unterstützen oder die vorhandene Sicherung nicht passt, bevor gerechnet wird
+     */
+    public Ergebnis berechne(ArrayList<Land> laender, Startlayout start, Zeitbudget budget, Sicherung sicherung) throws Sicherungsfehler {
+        if (this.komponenten || this.mehrstufig || this.einfrieren || budget != null) {
+            throw new Sicherungsfehler("Sicherung ist nur ohne Komponenten, mehrstufiges Verfahren, Einfrieren und Zeitbudget möglich");
+        }
+        Modell modell = new Modell(laender);
+        vorIteration(modell);
+        if (start != null) {
+            start.wendeAn(modell, laender);
+        }
+        sicherung.pruefe(modell, modus());     //Die Kennung der Sicherung enthält die Positionen nach dem Startlayout
+        return rechne(laender, modell, start, budget, sicherung);
+    }
+
+    /**
+     * Methode, die berechne mit einem Modell nach der Voriteration und dem Startlayout ausführt und das Ergebnis in die Länder zurückschreibt.
+     */
+    private Ergebnis rechne(ArrayList<Land> laender, Modell modell, Startlayout start, Zeitbudget budget, Sicherung sicherung) {
+        Ergebnis ergebnis;
+        Komponenten zerlegung = this.komponenten ? new Komponenten(modell) : null;
+        boolean vergroebern = this.mehrstufig && start == null;
+        //Ein Pool für die ganze Berechnung, den sich alle Komponenten und Stufen teilen
+        ForkJoinPool pool = this.threads > 0 ? new ForkJoinPool(this.threads) : null;
+        try {
+            if (zerlegung != null && zerlegung.anzahl > 1) {
+                ergebnis = iteriereKomponenten(modell, zerlegung, vergroebern, budget, pool);
+            } else if (vergroebern) {
+                ergebnis = new Mehrstufig(modell).iteriere(this, this.listener, this.maxIterationen, budget, pool);
+            } else {
+                ergebnis = iteriere(modell, this.listener, this.maxIterationen, budget, sicherung, pool);
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        if (sicherung != null) {
+            sicherung.loesche();
+        }
+        if (budget != null && ergebnis.qualitaet == null) {     //Nach Zerlegung und Packen wird das ganze Modell bewertet
+            Qualitaet qualitaet = Qualitaet.berechne(modell, new Pruefung.Puffer());
+            ergebnis = new Ergebnis(ergebnis.iterationen, ergebnis.epsilon, ergebnis.strategie, ergebnis.abbruch, qualitaet);
+        }
+        modell.schreibeZurueck(laender);
+        return ergebnis;
+    }
+
+    /**
+     * Methode zum Berechnen jeder Komponente als eigenes Teilmodell. Die Komponenten werden gleichzeitig berechnet,
+     * die größten zuerst, damit die größte Komponente nicht am Ende alleine läuft. Danach werden sie gepackt.
+     *
+     * @param modell      Modell nach der Voriteration
+     * @param zerlegung   Komponenten des Modells
+     * @param vergroebern true, wenn jede Komponente mehrstufig berechnet wird
+     * @param budget      Zeitbudget für alle Komponenten zusammen, null ohne Zeitbudget
+     * @param pool        Pool für den parallelen Modus, den alle Komponenten gemeinsam nutzen, null im sequentiellen Modus
+     * @return Returns Ergebnis mit der maximalen Anzahl an Iterationen und dem maximalen epsilon aller Komponenten
+     */
+    private Ergebnis iteriereKomponenten(Modell modell, Komponenten zerlegung, boolean vergroebern, Zeitbudget budget, ForkJoinPool pool) {
+        Integer[] reihenfolge = new Integer[zerlegung.anzahl];
+        for (int k = 0; k < zerlegung.anzahl; k++) {
+            reihenfolge[k] = k;
+        }
+        Arrays.sort(reihenfolge, (a, b) -> zerlegung.groesse(b) - zerlegung.groesse(a));
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(zerlegung.anzahl, Runtime.getRuntime().availableProcessors()));
+        try {
+            ArrayList<Future<Ergebnis>> ergebnisse = new ArrayList<>();
+            for (int k : reihenfolge) {
+                Modell teil = zerlegung.teilModell(modell, k);
+                ergebnisse.add(executor.submit(() -> {
+                    Ergebnis e = vergroebern ? new Mehrstufig(teil).iteriere(this, null, this.maxIterationen, budget, pool)
+                            : iteriere(teil, null, this.maxIterationen, budget, null, pool);
+                    synchronized (modell) {
+                        zerlegung.uebernehme(modell, k, teil);
+                    }
+                    return e;
+                }));
+            }
+            int iterationen = 0;
+            double epsilon = 0;
+            Abbruch abbruch = Abbruch.KONVERGIERT;
+            for (Future<Ergebnis> f : ergebnisse) {
+                Ergebnis e = f.get();
+                iterationen = Math.max(iterationen, e.iterationen);
+                epsilon = Math.max(epsilon, e.epsilon);
+                abbruch = e.abbruch.compareTo(abbruch) > 0 ? e.abbruch : abbruch;
+            }
+            zerlegung.packe(modell);
+            return new Ergebnis(iterationen, epsilon, this.strategie, abbruch, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Berechnung der Komponenten wurde unterbrochen", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Fehler bei der Berechnung einer Komponente", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return Returns true, wenn die Verschiebungen mit den Koordinaten zu Beginn der Iteration berechnet werden (paralleler Modus oder Verfahren außer FEST)
+     */
+    private boolean gleichzeitig() {
+        return this.threads > 0 || this.strategie != Strategie.FEST;
+    }
+
+    /**
+     * @return Returns Kennung des Modus, der bestimmt, welche Rechnung eine Sicherung fortsetzt: Verfahren, gleichzeitig oder der Reihe nach, Vektorkern
+     */
+    private int modus() {
+        return this.strategie.ordinal() * 4 + (gleichzeitig() ? 2 : 0) + (this.kern != null ? 1 : 0);
+    }
+
+    /**
+     * Methode mit dem eigentlichen Iterationsverfahren. Verschiebt die Koordinaten im Modell, bis die gewünschte Genauigkeit
+     * oder die maximale Anzahl an Iterationen (für die gröberen Stufen des mehrstufigen Verfahrens eine eigene) erreicht ist.
+     * Die Voriteration muss vorher bereits angewendet worden sein.
+     * Mit Zeitbudget wird alle PRUEFUNG Iterationen die Qualität berechnet und das beste Layout gemerkt.
+     * Am Ende wird das beste Layout ins Modell geschrieben.
+     *
+     * @param modell         Modell, dessen Koordinaten verändert werden
+     * @param listener       Listener, der nach jeder Iteration die Messwerte erhält, null wenn nichts gemessen werden soll
+     * @param maxIterationen Maximale Anzahl an Iterationen
+     * @param budget         Zeitbudget, null ohne Zeitbudget
+     * @param sicherung      Sicherung, die mit pruefe geprüft wurde, aus der fortgesetzt und in die regelmäßig geschrieben wird, null ohne Sicherung
+     * @param pool           Pool für den parallelen Modus, wird vom Aufrufer erstellt und beendet, null im sequentiellen Modus
+     * @return Returns Ergebnis mit Anzahl der Iterationen und epsilon der letzten Iteration, mit Zeitbudget auch mit der Qualität
+     */
+    Ergebnis iteriere(Modell modell, IterationsListener listener, int maxIterationen, Zeitbudget budget, Sicherung sicherung, ForkJoinPool pool) {
         //Wert, um wie viel jedes Land sich bewegt
         // (in Aufgabenstellung wurde 0.5 empfohlen, allerdings gehen die Kreise damit zu weit auseinander)
 //        double value = 0.01;
         double value = 0.005;
-        this.matrix = new Double[laender.size()][laender.size()];   //Initialisieren der Matrix
         int iterationen = 0;
 
-        for (int i = 0; i < laender.size(); i++) {
-            //Fülle Matrix mit Nullen, falls 2 Länder später keine Beziehung haben, würde der Zugriff auf das Element sonst null zurückgeben
-            Arrays.fill(matrix[i], 0.);
-            Land l = laender.get(i);
-            this.altePunkte.add(new Land(l.x, l.y, l.radius, l.name));  //Fülle die Liste der alten Punkte
+        //Die Überlappungen werden nicht mehr für alle Paare geprüft, sondern nur für Länder in benachbarten Zellen eines Rasters.
+        //Die Zellgröße wird nach der Voriteration aus dem größten Radius bestimmt, da die Radien danach nicht mehr verändert werden
+        double rMax = 0;
+        for (int i = 0; i < modell.anzahl; i++) {
+            rMax = Double.max(rMax, modell.radius[i]);
+        }
+        Raster raster = new Raster(2 * rMax);
+        Raster.Treffer treffer = new Raster.Treffer();
+        //Kräfte werden nur für die Nachbarn und alle Länder gespeichert, mit denen sich ein Land schon einmal überlappt hat.
+        // Die Kraft einer vergangenen Überlappung bleibt dabei wie bei der bisherigen Matrix stehen
+        Kraefte kraefte = new Kraefte(modell);
+        double epsilon; //Doublewert, der die Veränderung zwischen zwei Iterationen berechnet
+        //Im parallelen Modus und bei allen Verfahren außer FEST werden die Verschiebungen mit den Koordinaten
+        // zu Beginn der Iteration berechnet und in einen zweiten Puffer geschrieben
+        boolean gleichzeitig = gleichzeitig();
+        double[] verschiebungX = new double[gleichzeitig ? modell.anzahl : 0];
+        double[] verschiebungY = new double[verschiebungX.length];
+        Schrittweiten schrittweiten = new Schrittweiten(this.strategie, verschiebungX.length);
+        if (sicherung != null) {
+            int stand;
+            try {
+                stand = sicherung.lade(modell, kraefte, schrittweiten.zustand());
+            } catch (IOException e) {
+                System.err.println("Sicherung konnte nicht gelesen werden, starte von vorne: " + e.getMessage());
+                stand = -1;
+            }
+            if (stand >= 0) {
+                iterationen = stand;
+                epsilon = sicherung.epsilon();
+                if (epsilon <= this.abbruchSchwelle || iterationen >= maxIterationen) {     //Gesichert nach der letzten Iteration
+                    Abbruch abbruch = epsilon <= this.abbruchSchwelle ? Abbruch.KONVERGIERT : Abbruch.MAX_ITERATIONEN;
+                    return new Ergebnis(iterationen, epsilon, schrittweiten.strategie(), abbruch, null);
+                }
+            }
         }
         //Abbruchbedingung: Genauigkeit erreicht oder mehr als x Iterationen.
         // Genauigkeit alleine reicht nicht, da 2 Kräfte theoretisch den Punkt abwechselnd hin und her schieben könnten, was zu einer Endlosschleife führt
-        vorIteration(laender, value); //wende Voriterationen an, müste normalerweise in Schleife geschehen, allerdings sollte es nur einmal angewendet werden
-        do{
-            for (int i = 0; i < laender.size(); i++) {
-                Land land = laender.get(i);
-                for (int j = 0; j < laender.size(); j++) {
-                    Land land2 = laender.get(j);
-                    //gehe für jedes Land durch alle anderen Länder
-                    if (!land2.name.equals(land.name)) {    //Falls beide Länder identisch, gehe zum nächsten Element
-                        //Berechne Kraft mit der Formel (Distanz von A und B) - (Summe der Radii)
-
-                        double kraft = (Math.sqrt(Math.pow(land2.x - land.x, 2) + Math.pow(land2.y - land.y, 2))) - (land2.radius + land.radius);
-                        if (kraft < 0) {
-                            //Wenn Kraft < 0 handelt es sich um Abstoßungskräfte, da Kreise sich überlappen
-                            matrix[i][j] = kraft;
-                        } else {
-                            //Sonst handelt es sich um Anziehungskräfte
-                            //Diese werden nur angewendet, wenn die beiden Länder Nachbarn sind
-                            if (land.nachbarn.contains(land2)) {
-                                matrix[i][j] = kraft;
-                            }
-                        }
+        Messung messung = listener != null ? new Messung(modell) : null;
+        Bestes bestes = budget != null ? new Bestes(modell, budget) : null;
+        Abbruch abbruch = null;
+        //Beim Einfrieren wird das Raster einmal aufgebaut und danach nur für die verschobenen Länder aktualisiert
+        AktiveMenge aktiv = null;
+        if (this.einfrieren && !gleichzeitig) {
+            raster.baue(modell.x, modell.y, modell.anzahl);
+            aktiv = new AktiveMenge(modell, this.abbruchSchwelle);
+        }
+        boolean nachlauf;   //true, wenn epsilon nur die aktiven Länder enthält und ohne Einfrieren weitergerechnet wird
+        do {
+            nachlauf = false;
+            if (messung != null) {
+                messung.start(modell, listener);
+            }
+            //Berechne die Kräfte mit den Koordinaten zu Beginn der Iteration
+            double[] x = modell.x;
+            double[] y = modell.y;
+            if (aktiv != null) {
+                for (int k = 0; k < aktiv.anzahl(); k++) {
+                    berechneKraefte(modell, kraefte, aktiv.land(k), raster, treffer);
+                }
+            } else if (!gleichzeitig) {
+                raster.baue(modell.x, modell.y, modell.anzahl);
+                for (int i = 0; i < modell.anzahl; i++) {
+                    berechneKraefte(modell, kraefte, i, raster, treffer);
+                }
+            } else {
+                raster.baue(modell.x, modell.y, modell.anzahl);
+                if (pool != null) {
+                    pool.invoke(new Block(modell, kraefte, raster, value, verschiebungX, verschiebungY, 0, modell.anzahl));
+                } else {
+                    for (int i = 0; i < modell.anzahl; i++) {
+                        berechneKraefte(modell, kraefte, i, raster, treffer);
+                        verschiebe(modell, kraefte, i, value, verschiebungX, verschiebungY);
                     }
                 }
             }
-            //Alle Kräfte für alle Länder sind jetzt berechnet, also wende sie der Reihe nach an
-            for (int i = 0; i < laender.size(); i++) {
-                Land land = laender.get(i);
-                for (int j = 0; j < laender.size(); j++) {
-                    Land land2 = laender.get(j);
-                    //Iteriere wieder für jedes Land über alle anderen Länder
-                    if (!land.name.equals(land2.name)) { //Wenn Länder gleich, gehe zum nächsten Element
-                        double d = Math.sqrt(Math.pow(land2.x - land.x, 2) + Math.pow(land2.y - land.y, 2)); //berechne Abstand der beiden Punkte
-                        //Verändere x und y Koordinaten des Landes
-                        //Dazu addiert man zur jeweiligen Koordinate (die Kraft (matrix[i][j])) * (dem Faktor(value)) * (der Koordinate des Vektors von einem zum anderen Land) / (die Distanz der beiden Punkte)
-                        land.x = land.x + (matrix[i][j] * value / d * (land2.x - land.x));
-                        land.y = land.y + (matrix[i][j] * value / d * (land2.y - land.y));
+            if (messung != null) {
+                messung.kraefteBerechnet();
+            }
+            //Alle Kräfte für alle Länder sind jetzt berechnet, also wende sie an
+            if (aktiv != null) {
+                //Nur die aktiven Länder werden der Reihe nach verschoben, epsilon enthält nur ihre Bewegung
+                boolean alle = aktiv.anzahl() == modell.anzahl;
+                for (int k = 0; k < aktiv.anzahl(); k++) {
+                    verschiebeLand(modell, kraefte, aktiv.land(k), value);
+                }
+                epsilon = aktiv.aktualisiere(modell, kraefte, raster);
+                //Abgebrochen wird nur nach einer Iteration über alle Länder, wie ohne Einfrieren.
+                // Sonst wird ab hier ohne Einfrieren weitergerechnet, die eingefrorenen Länder bewegen sich noch minimal
+                if (epsilon <= this.abbruchSchwelle && !alle) {
+                    aktiv = null;
+                    nachlauf = true;
+                }
+            } else if (!gleichzeitig) {
+                //Die Länder werden der Reihe nach verschoben
+                wendeKraefteAn(modell, kraefte, value);
+                //Berechne daraus resultierende Veränderung zu vorherigen Daten
+                epsilon = aenderung(modell);
+            } else if (this.strategie == Strategie.FEST) {
+                for (int i = 0; i < modell.anzahl; i++) {
+                    x[i] = x[i] + verschiebungX[i];
+                    y[i] = y[i] + verschiebungY[i];
+                }
+                epsilon = aenderung(modell);
+            } else {
+                epsilon = schrittweiten.wendeAn(modell, verschiebungX, verschiebungY, iterationen);
+            }
+            iterationen += 1;
+            if (messung != null) {
+                messung.beende(modell, iterationen, epsilon, listener);
+            }
+            if (bestes != null) {
+                abbruch = bestes.pruefe(modell, iterationen, epsilon);
+            }
+            if (sicherung != null && sicherung.faellig(iterationen)) {
+                sicherung.schreibe(modell, kraefte, schrittweiten.zustand(), iterationen, epsilon);
+            }
+        } while (abbruch == null && (epsilon > this.abbruchSchwelle || nachlauf) && iterationen < maxIterationen);
+        if (abbruch == null) {
+            abbruch = epsilon <= this.abbruchSchwelle ? Abbruch.KONVERGIERT : Abbruch.MAX_ITERATIONEN;
+        }
+        if (messung != null) {
+            listener.ende(messung.gesamt);
+        }
+
+        Qualitaet qualitaet = null;
+        if (bestes != null) {
+            qualitaet = bestes.beende(modell);
+            if (bestes.wiederhergestellt) {     //Das Ergebnis beschreibt das zurückgegebene Layout, nicht die letzte Iteration
+                iterationen = bestes.iteration;
+                epsilon = bestes.epsilon;
+            }
+        }
+        return new Ergebnis(iterationen, epsilon, schrittweiten.strategie(), abbruch, qualitaet); //gebe Anzahl Durchläufe zurück
+    }
+
+    /**
+     * Methode zum Berechnen der Kräfte, die mit den Koordinaten zu Beginn der Iteration auf ein Land wirken.
+     * Es werden nur die Kräfte dieses Landes verändert, daher kann die Methode für verschiedene Länder parallel aufgerufen werden.
+     *
+     * @param modell  Modell mit den aktuellen Koordinaten
+     * @param kraefte Kräfte, in die das Ergebnis geschrieben wird
+     * @param i       Index des Landes
+     * @param raster  Raster, das mit den aktuellen Koordinaten aufgebaut wurde
+     * @param treffer Puffer für die Suche im Raster
+     */
+    private void berechneKraefte(Modell modell, Kraefte kraefte, int i, Raster raster, Raster.Treffer treffer) {
+        double[] x = modell.x;
+        double[] y = modell.y;
+        double[] radius = modell.radius;
+        //Berechne Kraft mit der Formel (Distanz von A und B) - (Summe der Radii)
+        //Zwischen Nachbarn wirkt die Kraft immer, Anziehung wie Abstoßung
+        for (int n = modell.nachbarStart[i]; n < modell.nachbarStart[i + 1]; n++) {
+            int j = modell.nachbarIndex[n];
+            kraefte.setze(i, j, kraft(x, y, radius, i, j));
+        }
+        //Zwischen allen anderen Ländern wirken nur Abstoßungskräfte, wenn Kreise sich überlappen.
+        //Dafür kommen nur Länder aus den umliegenden Zellen in Frage
+        raster.suche(x[i], y[i], treffer);
+        if (this.kern != null) {
+            int anzahl = this.kern.ueberlappungen(x, y, radius, i, treffer);
+            for (int k = 0; k < anzahl; k++) {
+                kraefte.setze(i, treffer.index[k], treffer.kraft[k]);
+            }
+            return;
+        }
+        for (int k = 0; k < treffer.anzahl; k++) {
+            int j = treffer.index[k];
+            if (j != i) {   //Falls beide Länder identisch, gehe zum nächsten Element
+                double kraft = kraft(x, y, radius, i, j);
+                if (kraft < 0) {
+                    kraefte.setze(i, j, kraft);
+                }
+            }
+        }
+    }
+
+    /**
+     * Methode zum Berechnen der Verschiebung eines Landes, wenn alle Länder gleichzeitig verschoben werden.
+     * Alle Koordinaten werden aus dem Modell gelesen, die Verschiebung wird nur in den Puffer geschrieben.
+     * Die Verschiebungen werden immer in derselben Reihenfolge aufsummiert, das Ergebnis hängt also nicht von der Aufteilung auf die Threads ab.
+     *
+     * @param modell        Modell mit den Koordinaten zu Beginn der Iteration
+     * @param kraefte       Kräfte, die auf die Länder wirken
+     * @param i             Index des Landes
+     * @param value         Faktor, mit dem die Kraft multipliziert wird
+     * @param verschiebungX Puffer für die Verschiebung in x Richtung
+     * @param verschiebungY Puffer für die Verschiebung in y Richtung
+     */
+    private void verschiebe(Modell modell, Kraefte kraefte, int i, double value, double[] verschiebungX, double[] verschiebungY) {
+        if (this.kern != null) {
+            this.kern.verschiebung(modell.x, modell.y, i, kraefte.partnerListe(i), kraefte.kraftListe(i), kraefte.anzahl(i), value,
+                    verschiebungX, verschiebungY);
+            return;
+        }
+        double[] x = modell.x;
+        double[] y = modell.y;
+        double summeX = 0;
+        double summeY = 0;
+        for (int k = 0; k < kraefte.anzahl(i); k++) {
+            int j = kraefte.partner(i, k);
+            double kraft = kraefte.kraft(i, k);
+            double d = Math.sqrt((x[j] - x[i]) * (x[j] - x[i]) + (y[j] - y[i]) * (y[j] - y[i]));
+            summeX += kraft * value / d * (x[j] - x[i]);
+            summeY += kraft * value / d * (y[j] - y[i]);
+        }
+        verschiebungX[i] = summeX;
+        verschiebungY[i] = summeY;
+    }
+
+    /**
+     * Methode zum Anwenden der Kräfte. Die Länder werden der Reihe nach verschoben,
+     * spätere Länder sehen also bereits die neuen Koordinaten der vorherigen.
+     *
+     * @param modell  Modell, dessen Koordinaten verändert werden
+     * @param kraefte Kräfte, die auf die Länder wirken
+     * @param value   Faktor, mit dem die Kraft multipliziert wird
+     */
+    private void wendeKraefteAn(Modell modell, Kraefte kraefte, double value) {
+        for (int i = 0; i < modell.anzahl; i++) {
+            verschiebeLand(modell, kraefte, i, value);
+        }
+    }
+
+    /**
+     * Methode zum Verschieben eines Landes mit den Kräften aller seiner Partner
+     *
+     * @param modell  Modell, dessen Koordinaten verändert werden
+     * @param kraefte Kräfte, die auf die Länder wirken
+     * @param i       Index des Landes
+     * @param value   Faktor, mit dem die Kraft multipliziert wird
+     */
+    private void verschiebeLand(Modell modell, Kraefte kraefte, int i, double value) {
+        double[] x = modell.x;
+        double[] y = modell.y;
+        //Iteriere für jedes Land über alle Partner, für alle anderen Länder ist die Kraft 0
+        for (int k = 0; k < kraefte.anzahl(i); k++) {
+            int j = kraefte.partner(i, k);
+            double kraft = kraefte.kraft(i, k);
+            double d = Math.sqrt((x[j] - x[i]) * (x[j] - x[i]) + (y[j] - y[i]) * (y[j] - y[i])); //berechne Abstand der beiden Punkte
+            //Verändere x und y Koordinaten des Landes
+            //Dazu addiert man zur jeweiligen Koordinate (die Kraft) * (dem Faktor(value)) * (der Koordinate des Vektors von einem zum anderen Land) / (die Distanz der beiden Punkte)
+            x[i] = x[i] + (kraft * value / d * (x[j] - x[i]));
+            y[i] = y[i] + (kraft * value / d * (y[j] - y[i]));
+        }
+    }
+
+    /**
+     * Methode zum Berechnen der Veränderung zur vorherigen Iteration. Danach werden die alten Punkte auf die neuen gesetzt.
+     *
+     * @param modell Modell mit den aktuellen und den alten Koordinaten
+     * @return Returns Summe der Abstände zwischen alten und neuen Punkten
+     */
+    private double aenderung(Modell modell) {
+        double summe = 0;
+        for (int i = 0; i < modell.anzahl; i++) {
+            double dx = modell.x[i] - modell.altX[i];
+            double dy = modell.y[i] - modell.altY[i];
+            summe += Math.sqrt(dx * dx + dy * dy);
+            //setze die Punkte der alten Länder auf die neuen
+            modell.altX[i] = modell.x[i];
+            modell.altY[i] = modell.y[i];
+        }
+        return summe;
+    }
+
+    /**
+     * Methode zum Berechnen der Kraft zwischen zwei Ländern mit der Formel (Distanz von A und B) - (Summe der Radii).
+     * Ist die Kraft negativ, überlappen sich die Kreise.
+     *
+     * @param x      x Koordinaten der Länder
+     * @param y      y Koordinaten der Länder
+     * @param radius Radien der Länder
+     * @param i      Index des Landes, auf das die Kraft wirkt
+     * @param j      Index des Landes, von dem die Kraft ausgeht
+     * @return Returns berechnete Kraft
+     */
+    static double kraft(double[] x, double[] y, double[] radius, int i, int j) {
+        double dx = x[j] - x[i];
+        double dy = y[j] - y[i];
+        return Math.sqrt(dx * dx + dy * dy) - (radius[j] + radius[i]);
+    }
+
+    /**
+     * Zustand der Verfahren mit veränderlicher Schrittweite (alle außer FEST).
+     * Wendet die mit fester Schrittweite berechneten Verschiebungen mit der Schrittweite des Verfahrens an.
+     * <p>
+     * Ein Land wird nur schneller als mit fester Schrittweite verschoben, solange die Verschiebung mit fester Schrittweite
+     * (also die Kraft) von Iteration zu Iteration um mindestens den Anteil ABNAHME kleiner wird. Sonst wird das Land mit fester Schrittweite
+     * verschoben und seine Schrittweite bzw. sein Momentum zurückgesetzt. Eine Kraft, die sich nicht abbaut (z.B. die gemerkte Abstoßung
+     * einer vergangenen Überlappung), wird so nicht beschleunigt, eine abklingende Kraft weiterhin schon.
+     * Außerdem wird ein Land pro Iteration höchstens um seine Verschiebung mit fester Schrittweite oder, falls das mehr ist,
+     * um BEGRENZUNG mal seinen Radius verschoben, damit es nicht durch andere Kreise springt und sich dabei neue Abstoßungen merkt.
+     * Da die Kräfte auch ohne Konvergenz schwanken, reicht das allein nicht: steigt die Summe der Verschiebungen mit fester Schrittweite
+     * auf mehr als DIVERGENZ mal ihr bisheriges Minimum oder ist das Minimum seit STAGNATION Iterationen nicht mehr um den Anteil
+     * VERBESSERUNG gesunken, fällt das Verfahren für den Rest der Berechnung auf FEST (gleichzeitig verschoben) zurück.
+     * Der Rückfall hält den Zustand zum Zeitpunkt des Rückfalls, er stellt kein früheres Layout wieder her:
+     * die gemerkten Abstoßungen gehören zum Zustand und lassen sich nicht zurücknehmen.
+     * <p>
+     * Gemessen (FEST sequentiell, die Verfahren gleichzeitig verschoben): auf Beispiel1 bis 3 brauchen die Verfahren 3 bis 7 mal weniger Iterationen
+     * als FEST (Beispiel1 6127 gegen 896 bis 1055, Beispiel3 26509 gegen 7990 bis 18784). Bei g200 (Generator 200 g200 ./ 1 8 3)
+     * schieben die gemerkten Abstoßungen die Länder ohne Ende auseinander, dort fallen alle Verfahren auf FEST zurück und sparen nichts,
+     * sie enden ungefähr wie FEST (siehe StrategieVergleich). Eine allgemeine Ersparnis an Iterationen ist das also nicht.
+     * NESTEROV (Kräfte an der vom Momentum vorausberechneten Stelle) wurde entfernt: es merkt sich Abstoßungen an Stellen,
+     * an denen die Länder nie waren, und endete bei g200 trotz Rückfall doppelt so weit verschoben wie FEST.
+     * <p>
+     * Konstanten: <br>
+     * WACHSEN, SCHRUMPFEN Faktoren für die Schrittweite bei ADAPTIV <br>
+     * SCHRITT_MIN, SCHRITT_MAX Grenzen der Schrittweite bei ADAPTIV, als Vielfaches der festen Schrittweite <br>
+     * BETA Anteil der vorherigen Verschiebung, der bei MOMENTUM mitgenommen wird <br>
+     * START, ABKLINGEN Schrittweite in der ersten Iteration und Faktor, mit dem der Anteil über der festen Schrittweite pro Iteration sinkt <br>
+     * ABNAHME Anteil, um den die Kraft auf ein Land pro Iteration mindestens kleiner werden muss, damit es beschleunigt wird <br>
+     * BEGRENZUNG Anteil des Radius, um den ein Land pro Iteration höchstens verschoben wird, wenn die feste Schrittweite weniger ergibt <br>
+     * DIVERGENZ Faktor über der kleinsten Summe der Verschiebungen mit fester Schrittweite, ab dem auf FEST zurückgefallen wird <br>
+     * STAGNATION, VERBESSERUNG Anzahl der Iterationen, in denen die kleinste Summe mindestens um den Anteil VERBESSERUNG sinken muss
+     */
+    private static class Schrittweiten {
+        private static final double WACHSEN = 1.2;
+        private static final double SCHRUMPFEN = 0.5;
+        private static final double SCHRITT_MIN = 0.1;
+        private static final double SCHRITT_MAX = 20;
+        private static final double BETA = 0.9;
+        private static final double START = 20;
+        private static final double ABKLINGEN = 0.999;
+        private static final double ABNAHME = 1e-6;
+        private static final double BEGRENZUNG = 0.01;
+        private static final double DIVERGENZ = 10;
+        private static final int STAGNATION = 1000;
+        private static final double VERBESSERUNG = 0.01;
+
+        private final Strategie strategie;
+        private double[] schritt;       //ADAPTIV: Schrittweite jedes Landes
+        private double[] letzteX;       //ADAPTIV: Verschiebung der vorherigen Iteration
+        private double[] letzteY;
+        private double[] geschwindigkeitX;  //MOMENTUM: tatsächliche Verschiebung der vorherigen Iteration
+        private double[] geschwindigkeitY;
+        private double[] kraft;         //Länge der Verschiebung mit fester Schrittweite jedes Landes in der vorherigen Iteration
+        //[0] 1 nach dem Rückfall auf FEST, sonst 0, [1] kleinste Summe der Verschiebungen mit fester Schrittweite (nur um VERBESSERUNG gesenkt),
+        // [2] Iteration, in der sie zuletzt gesenkt wurde
+        private final double[] stand = {0, Double.MAX_VALUE, 0};
+
+        Schrittweiten(Strategie strategie, int anzahl) {
+            this.strategie = strategie;
+            if (strategie == Strategie.ADAPTIV) {
+                this.schritt = new double[anzahl];
+                Arrays.fill(this.schritt, 1);
+                this.letzteX = new double[anzahl];
+                this.letzteY = new double[anzahl];
+            } else if (strategie == Strategie.MOMENTUM) {
+                this.geschwindigkeitX = new double[anzahl];
+                this.geschwindigkeitY = new double[anzahl];
+            }
+            if (strategie != Strategie.FEST) {
+                //Vor der ersten Iteration gibt es keine Kraft, mit der verglichen wird, die erste Iteration nutzt also die feste Schrittweite
+                this.kraft = new double[anzahl];
+            }
+        }
+
+        /**
+         * @return Returns Verfahren, mit dem zuletzt verschoben wurde, FEST nach einem Rückfall
+         */
+        Strategie strategie() {
+            return this.stand[0] != 0 ? Strategie.FEST : this.strategie;
+        }
+
+        /**
+         * @return Returns Arrays mit dem Zustand des Verfahrens, der für eine Sicherung gebraucht wird
+         */
+        double[][] zustand() {
+            switch (this.strategie) {
+                case ADAPTIV:
+                    return new double[][]{this.schritt, this.letzteX, this.letzteY, this.kraft, this.stand};
+                case MOMENTUM:
+                    return new double[][]{this.geschwindigkeitX, this.geschwindigkeitY, this.kraft, this.stand};
+                case ABKUEHLUNG:
+                    return new double[][]{this.kraft, this.stand};
+                default:
+                    return new double[0][];
+            }
+        }
+
+        /**
+         * Verschiebt die Länder mit der Schrittweite des Verfahrens.
+         *
+         * @param modell        Modell, dessen Koordinaten verändert werden
+         * @param verschiebungX Verschiebung in x Richtung mit fester Schrittweite
+         * @param verschiebungY Verschiebung in y Richtung mit fester Schrittweite
+         * @param iteration     Nummer der Iteration, beginnend bei 0
+         * @return Returns Summe der tatsächlichen Verschiebungen, wird wie bei FEST als epsilon genutzt
+         */
+        double wendeAn(Modell modell, double[] verschiebungX, double[] verschiebungY, int iteration) {
+            double fest = 0;
+            for (int i = 0; i < modell.anzahl; i++) {
+                fest += Math.sqrt(verschiebungX[i] * verschiebungX[i] + verschiebungY[i] * verschiebungY[i]);
+            }
+            if (fest < this.stand[1] * (1 - VERBESSERUNG)) {
+                this.stand[1] = fest;
+                this.stand[2] = iteration;
+            }
+            if (fest > DIVERGENZ * this.stand[1] || iteration - this.stand[2] >= STAGNATION) {
+                this.stand[0] = 1;
+            }
+            boolean rueckfall = this.stand[0] != 0;
+            double summe = 0;
+            double abkuehlung = 1 + (START - 1) * Math.pow(ABKLINGEN, iteration);
+            for (int i = 0; i < modell.anzahl; i++) {
+                double gx = verschiebungX[i];
+                double gy = verschiebungY[i];
+                double dx = gx;
+                double dy = gy;
+                double g = Math.sqrt(gx * gx + gy * gy);
+                boolean schrumpft = g < this.kraft[i] * (1 - ABNAHME);
+                this.kraft[i] = g;
+                switch (rueckfall ? Strategie.FEST : this.strategie) {
+                    case ADAPTIV:
+                        //Zeigt die Kraft in dieselbe Richtung wie vorher, wird der Schritt größer, springt das Land hin und her, kleiner
+                        double richtung = gx * this.letzteX[i] + gy * this.letzteY[i];
+                        if (richtung > 0 && schrumpft) {
+                            this.schritt[i] = Math.min(this.schritt[i] * WACHSEN, SCHRITT_MAX);
+                        } else if (richtung < 0) {
+                            this.schritt[i] = Math.max(this.schritt[i] * SCHRUMPFEN, SCHRITT_MIN);
+                        }
+                        if (!schrumpft) {
+                            this.schritt[i] = Math.min(this.schritt[i], 1);
+                        }
+                        this.letzteX[i] = gx;
+                        this.letzteY[i] = gy;
+                        dx = this.schritt[i] * gx;
+                        dy = this.schritt[i] * gy;
+                        break;
+                    case MOMENTUM:
+                        if (schrumpft) {
+                            dx += BETA * this.geschwindigkeitX[i];
+                            dy += BETA * this.geschwindigkeitY[i];
+                        }
+                        this.geschwindigkeitX[i] = dx;
+                        this.geschwindigkeitY[i] = dy;
+                        break;
+                    case ABKUEHLUNG:
+                        if (schrumpft) {
+                            dx *= abkuehlung;
+                            dy *= abkuehlung;
+                        }
+                        break;
+                    default:
+                }
+                double laenge = Math.sqrt(dx * dx + dy * dy);
+                double grenze = Math.max(g, BEGRENZUNG * modell.radius[i]);
+                if (laenge > grenze) {
+                    dx *= grenze / laenge;
+                    dy *= grenze / laenge;
+                    laenge = grenze;
+                    if (this.geschwindigkeitX != null) {
+                        this.geschwindigkeitX[i] = dx;
+                        this.geschwindigkeitY[i] = dy;
                     }
                 }
+                summe += laenge;
+                modell.x[i] += dx;
+                modell.y[i] += dy;
+                modell.altX[i] = modell.x[i];
+                modell.altY[i] = modell.y[i];
             }
-            //Berechne daraus resultierende Veränderung zu vorherigen Daten
-            epsilon = 0;
-            for (int i = 0; i < laender.size(); i++) {
-                Land l = laender.get(i);
-                Land alt = this.altePunkte.get(i);
-                epsilon += Math.sqrt(Math.pow(l.x - alt.x, 2) + Math.pow(l.y - alt.y, 2));
-                //setze die Punkte der alten Länder auf die neuen
-                alt.x = l.x;
-                alt.y = l.y;
+            return summe;
+        }
+    }
+
+    /**
+     * Merkt sich mit Zeitbudget das beste Layout. Alle PRUEFUNG Iterationen wird die Qualität berechnet,
+     * hat sie sich seit STAGNATION Iterationen nicht mehr um mindestens VERBESSERUNG (relativ) verbessert, wird abgebrochen.
+     * Die Frist wird nach jeder Iteration geprüft. Wird das beste Layout wiederhergestellt, gelten seine Iteration und sein epsilon.
+     */
+    private static class Bestes {
+        private static final int PRUEFUNG = 100;
+        private static final int STAGNATION = 1000;
+        private static final double BEGRENZUNG = 0.01;
+        private static final double VERBESSERUNG = 1e-3;
+        private final Zeitbudget budget;
+        private final Pruefung.Puffer puffer = new Pruefung.Puffer();
+        private final double[] x;
+        private final double[] y;
+        private Qualitaet qualitaet = null;
+        private double letzterWert = Double.MAX_VALUE;
+        private int letzteVerbesserung = 0;
+        private int iteration;
+        private double epsilon;
+        private boolean wiederhergestellt = false;
+
+        Bestes(Modell modell, Zeitbudget budget) {
+            this.budget = budget;
+            this.x = new double[modell.anzahl];
+            this.y = new double[modell.anzahl];
+        }
+
+        /**
+         * @return Returns Grund für den Abbruch, null wenn weiter iteriert wird
+         */
+        Abbruch pruefe(Modell modell, int iterationen, double epsilon) {
+            if (this.budget.abgelaufen()) {
+                return Abbruch.ZEIT;
             }
-            iterationen += 1;
-            if(iterationen%10000==0){
-                System.out.println(iterationen);
+            if (iterationen % PRUEFUNG != 0) {
+                return null;
+            }
+            Qualitaet q = Qualitaet.berechne(modell, this.puffer);
+            if (q.wert < this.letzterWert * (1 - VERBESSERUNG)) {
+                this.letzterWert = q.wert;
+                this.letzteVerbesserung = iterationen;
             }
-        } while (epsilon > this.abbruchSchwelle && iterationen < 100000);
+            if (this.qualitaet == null || q.wert < this.qualitaet.wert) {
+                this.qualitaet = q;
+                this.iteration = iterationen;
+                this.epsilon = epsilon;
+                System.arraycopy(modell.x, 0, this.x, 0, modell.anzahl);
+                System.arraycopy(modell.y, 0, this.y, 0, modell.anzahl);
+            }
+            return iterationen - this.letzteVerbesserung >= STAGNATION ? Abbruch.STAGNATION : null;
+        }
+
+        /**
+         * Bewertet das letzte Layout und schreibt das beste Layout ins Modell, falls das letzte schlechter ist
+         *
+         * @return Returns Qualität des besten Layouts
+         */
+        Qualitaet beende(Modell modell) {
+            Qualitaet q = Qualitaet.berechne(modell, this.puffer);
+            if (this.qualitaet == null || q.wert <= this.qualitaet.wert) {
+                return q;
+            }
+            System.arraycopy(this.x, 0, modell.x, 0, modell.anzahl);
+            System.arraycopy(this.y, 0, modell.y, 0, modell.anzahl);
+            System.arraycopy(this.x, 0, modell.altX, 0, modell.anzahl);
+            System.arraycopy(this.y, 0, modell.altY, 0, modell.anzahl);
+            this.wiederhergestellt = true;
+            return this.qualitaet;
+        }
+    }
+
+    /**
+     * Berechnet die Messwerte der Iterationen für den Listener. Wird nur erstellt, wenn ein Listener gesetzt ist.
+     * Überlappungen und Anziehungsenergie werden mit {@link Pruefung} auf den Koordinaten zu Beginn der Iteration berechnet,
+     * damit die Kräfteberechnung selbst nicht verändert werden muss.
+     * Ist der Listener zu Beginn einer Iteration nicht aktiv (siehe {@link IterationsListener#aktiv()}), wird in dieser Iteration nichts berechnet.
+     */
+    private static class Messung {
+        private final Messwerte messwerte = new Messwerte();
+        private final Messwerte gesamt = new Messwerte();
+        private final double[] vorherX;
+        private final double[] vorherY;
+        private final Pruefung.Puffer puffer = new Pruefung.Puffer();
+        private long start;
+        private long kraefte;
+        private boolean aktiv;
+
+        Messung(Modell modell) {
+            this.vorherX = new double[modell.anzahl];
+            this.vorherY = new double[modell.anzahl];
+            this.messwerte.anzahl = modell.anzahl;
+            this.gesamt.anzahl = modell.anzahl;
+        }
+
+        void start(Modell modell, IterationsListener listener) {
+            this.aktiv = listener.aktiv();
+            if (!this.aktiv) {
+                return;
+            }
+            System.arraycopy(modell.x, 0, this.vorherX, 0, modell.anzahl);
+            System.arraycopy(modell.y, 0, this.vorherY, 0, modell.anzahl);
+            this.start = System.nanoTime();
+        }
+
+        void kraefteBerechnet() {
+            if (this.aktiv) {
+                this.kraefte = System.nanoTime();
+            }
+        }
+
+        void beende(Modell modell, int iteration, double epsilon, IterationsListener listener) {
+            if (!this.aktiv) {
+                this.gesamt.iteration = iteration;
+                this.gesamt.epsilon = epsilon;
+                return;
+            }
+            Messwerte m = this.messwerte;
+            m.nanosKraefte = this.kraefte - this.start;
+            m.nanosAnwenden = System.nanoTime() - this.kraefte;
+            m.iteration = iteration;
+            m.epsilon = epsilon;
+            m.maxVerschiebung = 0;
+            for (int i = 0; i < modell.anzahl; i++) {
+                double dx = modell.x[i] - this.vorherX[i];
+                double dy = modell.y[i] - this.vorherY[i];
+                m.maxVerschiebung = Math.max(m.maxVerschiebung, Math.sqrt(dx * dx + dy * dy));
+            }
+            //Überlappungen und Anziehung zu Beginn der Iteration, jedes Paar wird nur einmal gezählt
+            Pruefung p = Pruefung.pruefe(this.vorherX, this.vorherY, modell, this.puffer);
+            m.ueberlappungen = p.ueberlappungen;
+            m.anziehungsEnergie = p.anziehungsEnergie;
+            this.gesamt.iteration = iteration;
+            this.gesamt.epsilon = epsilon;
+            this.gesamt.maxVerschiebung = Math.max(this.gesamt.maxVerschiebung, m.maxVerschiebung);
+            this.gesamt.ueberlappungen = m.ueberlappungen;
+            this.gesamt.anziehungsEnergie = m.anziehungsEnergie;
+            this.gesamt.nanosKraefte += m.nanosKraefte;
+            this.gesamt.nanosAnwenden += m.nanosAnwenden;
+            listener.iteration(m);
+        }
+    }
 
-        return iterationen; //gebe Anzahl Durchläufe zurück
+    /**
+     * Task für den parallelen Modus. Berechnet Kräfte und Verschiebungen für einen Bereich von Ländern,
+     * große Bereiche werden in zwei Hälften geteilt, bis sie höchstens BLOCK Länder enthalten.
+     */
+    private class Block extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Modell modell;
+        private final Kraefte kraefte;
+        private final Raster raster;
+        private final double value;
+        private final double[] verschiebungX;
+        private final double[] verschiebungY;
+        private final int von;
+        private final int bis;
+
+        Block(Modell modell, Kraefte kraefte, Raster raster, double value, double[] verschiebungX, double[] verschiebungY, int von, int bis) {
+            this.modell = modell;
+            this.kraefte = kraefte;
+            this.raster = raster;
+            this.value = value;
+            this.verschiebungX = verschiebungX;
+            this.verschiebungY = verschiebungY;
+            this.von = von;
+            this.bis = bis;
+        }
+
+        @Override
+        protected void compute() {
+            if (bis - von > BLOCK) {
+                int mitte = (von + bis) >>> 1;
+                invokeAll(new Block(modell, kraefte, raster, value, verschiebungX, verschiebungY, von, mitte),
+                        new Block(modell, kraefte, raster, value, verschiebungX, verschiebungY, mitte, bis));
+                return;
+            }
+            Raster.Treffer treffer = new Raster.Treffer();
+            for (int i = von; i < bis; i++) {
+                berechneKraefte(modell, kraefte, i, raster, treffer);
+                verschiebe(modell, kraefte, i, value, verschiebungX, verschiebungY);
+            }
+        }
     }
 
 }
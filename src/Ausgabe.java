@@ -1,10 +1,20 @@
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.DecimalFormatSymbols;
 import java.util.ArrayList;
+import java.util.Locale;
 
 /**
  * Klasse zum Ausgeben der der Ergebnisse in einem Format, das man mit <a href="http://www.gnuplot.info">gnuplot</a> plotten kann.
+ * Die Klasse hat keinen Zustand, eine Instanz kann also von mehreren Threads gleichzeitig genutzt werden.
+ * Ausgegeben wird immer in UTF-8.
  *
  * @author ehamada
  */
@@ -12,25 +22,28 @@ public class Ausgabe {
     /**
      * Attribute:
      *
-     * @laender ArrayList der Länder, die ausgegeben werden sollen
-     * @xmax Maximaler X Wert aller Kreise (Mittelwert des Kreises + Radius), wird zur Skalierung benötigt
-     * @xmin Minimaler X Wert aller Kreise (Mittelwert des Kreises - Radius), wird zur Skalierung benötigt
-     * @ymax Maximaler Y Wert aller Kreise (Mittelwert des Kreises + Radius), wird zur Skalierung benötigt
-     * @ymin Minimaler Y Wert aller Kreise (Mittelwert des Kreises - Radius), wird zur Skalierung benötigt
+     * @PUFFER Größe des Puffers beim Schreiben in Zeichen
+     * @STELLEN Anzahl der Nachkommastellen der Koordinaten und Radien
+     * @FAKTOR 10 hoch STELLEN
      */
-    private ArrayList<Land> laender;
-    private double xmax = -Double.MAX_VALUE;
-    private double xmin = Double.MAX_VALUE;
-    private double ymax = -Double.MAX_VALUE;
-    private double ymin = Double.MAX_VALUE;
+    private static final int PUFFER = 1 << 16;
+    private static final int STELLEN = 6;
+    private static final long FAKTOR = 1_000_000;
 
     /**
      * Private Methode zum Skalieren der Ausgabe, damit Feld quadratisch ist. Wird nur von der Methode ausgabe aufgerufen.
      * Dafür wird für jedes Land der maximale und minimale Wert in x und y Richtung des Kreises genommen, um die Extremwerte zu erhalten.
      * Danach wird das Maximum von (xmax-xmin) und (ymax-ymin) genommen und der kleinere Wert auf die gleiche Größe gesetzt.
+     *
+     * @param laender ArrayList der Länder, die ausgegeben werden sollen
+     * @return Returns Array mit xmin, xmax, ymin und ymax (Mittelwert des Kreises -/+ Radius)
      */
-    private void skaliere() {
-        for (Land land : this.laender) {
+    private double[] skaliere(ArrayList<Land> laender) {
+        double xmax = -Double.MAX_VALUE;
+        double xmin = Double.MAX_VALUE;
+        double ymax = -Double.MAX_VALUE;
+        double ymin = Double.MAX_VALUE;
+        for (Land land : laender) {
             xmin = Double.min(xmin, land.x - land.radius);
             xmax = Double.max(xmax, land.x + land.radius);
             ymin = Double.min(ymin, land.y - land.radius);
@@ -39,6 +52,7 @@ public class Ausgabe {
         double a = Double.max(xmax - xmin, ymax - ymin);
         xmax = xmin + a;
         ymax = ymin + a;
+        return new double[]{xmin, xmax, ymin, ymax};
     }
 
     /**
@@ -57,23 +71,174 @@ public class Ausgabe {
      * @throws Exception Wirft Exception, falls Fehler beim Schreiben in Datei entsteht.
      */
     public File ausgabe(ArrayList<Land> laender, String datei, String pfad, int iterationen, String name) throws Exception {
-        this.laender = laender;
-        skaliere(); // skaliere Range der Werte
-        FileWriter fileWriter = new FileWriter(pfad + datei);
-        PrintWriter printWriter = new PrintWriter(fileWriter);
-        printWriter.printf("reset\nset xrange [%.15f:%.15f]\n", xmin, xmax);
-        printWriter.printf("set yrange [%.15f:%.15f]\n", ymin, ymax);
-        printWriter.printf("set size ratio 1.0\n");
-        printWriter.printf("set title \"%s, Iteration: %d\"\n", name, iterationen);
-        printWriter.printf("unset xtics\nunset ytics\n$data << EOD\n");
-        for (Land land : this.laender) { //Schreibe für jedes Land die Positionen, den Radius, den Namen (Autokennzeichen) als Label und einer ID für die Farbe in die Datei
-            printWriter.printf("%f %f %f %s %d\n", land.x, land.y, land.radius, land.name, this.laender.indexOf(land));
+        try (OutputStream out = Files.newOutputStream(Paths.get(pfad + datei))) {
+            ausgabe(laender, out, iterationen, name);
         }
-        printWriter.printf("EOD\nplot \\\n'$data' using 1:2:3:5 with circles lc var notitle, \\\n'$data' using 1:2:4:5 with labels font \"arial,9\" tc variable notitle");
-        printWriter.close();
         return new File(pfad + datei);
     }
 
+    /**
+     * Methode zum Ausgeben in einen Stream, z.B. System.out, damit gnuplot das Ergebnis über eine Pipe ohne temporäre Datei lesen kann.
+     * Geschrieben wird in UTF-8 über einen großen Puffer, die Zeilen der Länder werden ohne printf formatiert (siehe formatiere).
+     * Der Stream wird am Ende geleert, aber nicht geschlossen.
+     *
+     * @param laender     Arraylist der Länder, die dargestellt werden sollen
+     * @param out         Stream, in den geschrieben wird
+     * @param iterationen Anzahl der Iterationen, die vom Hauptalgorithmus benötigt wurden. Wird im Titel des Plots angegeben
+     * @param name        Name des Kennwerts. Wird im Titel angegeben.
+     * @throws IOException Falls Fehler beim Schreiben entsteht.
+     */
+    public void ausgabe(ArrayList<Land> laender, OutputStream out, int iterationen, String name) throws IOException {
+        double[] bereich = skaliere(laender); // skaliere Range der Werte
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), PUFFER);
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);  //Wie bei printf, damit die Ausgabe gleich bleibt
+        writer.write(String.format(locale, "reset\nset xrange [%.15f:%.15f]\n", bereich[0], bereich[1]));
+        writer.write(String.format(locale, "set yrange [%.15f:%.15f]\n", bereich[2], bereich[3]));
+        writer.write("set size ratio 1.0\n");
+        writer.write(String.format(locale, "set title \"%s, Iteration: %d\"\n", name, iterationen));
+        writer.write("unset xtics\nunset ytics\n$data << EOD\n");
+        DecimalFormatSymbols symbole = DecimalFormatSymbols.getInstance(locale);
+        boolean schnell = symbole.getZeroDigit() == '0';    //Bei anderen Ziffern (z.B. arabisch) formatiert String.format
+        char trenner = symbole.getDecimalSeparator();
+        StringBuilder zeile = new StringBuilder(128);
+        for (int i = 0; i < laender.size(); i++) { //Schreibe für jedes Land die Positionen, den Radius, den Namen (Autokennzeichen) als Label und einer ID für die Farbe in die Datei
+            Land land = laender.get(i);
+            zeile.setLength(0);
+            if (schnell) {
+                formatiere(zeile, land.x, trenner).append(' ');
+                formatiere(zeile, land.y, trenner).append(' ');
+                formatiere(zeile, land.radius, trenner).append(' ');
+                zeile.append(land.name).append(' ').append(i).append('\n');
+            } else {
+                zeile.append(String.format(locale, "%f %f %f %s %d\n", land.x, land.y, land.radius, land.name, i));
+            }
+            writer.append(zeile);
+        }
+        writer.write("EOD\nplot \\\n'$data' using 1:2:3:5 with circles lc var notitle, \\\n'$data' using 1:2:4:5 with labels font \"arial,9\" tc variable notitle");
+        writer.flush();
+    }
+
+    /**
+     * Methode zum Ausgeben der Koordinaten als JSON, z.B. für Anfragen an den {@link Dienst}. Format:
+     * <code>{"name":"Fläche der Staaten","iterationen":6127,"laender":[{"name":"D","x":..,"y":..,"radius":..},..]}</code>.
+     * Die Zahlen werden mit Double.toString ungerundet ausgegeben, NaN und Unendlich als null.
+     * Der Stream wird am Ende geleert, aber nicht geschlossen.
+     *
+     * @param laender     Arraylist der Länder, die ausgegeben werden sollen
+     * @param out         Stream, in den geschrieben wird
+     * @param iterationen Anzahl der Iterationen, die vom Hauptalgorithmus benötigt wurden
+     * @param name        Name des Kennwerts
+     * @throws IOException Falls Fehler beim Schreiben entsteht.
+     */
+    public void ausgabeJson(ArrayList<Land> laender, OutputStream out, int iterationen, String name) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), PUFFER);
+        StringBuilder zeile = new StringBuilder(128);
+        zeile.append("{\"name\":");
+        text(zeile, name).append(",\"iterationen\":").append(iterationen).append(",\"laender\":[");
+        for (int i = 0; i < laender.size(); i++) {
+            Land land = laender.get(i);
+            if (i > 0) {
+                zeile.append(',');
+            }
+            zeile.append("\n{\"name\":");
+            text(zeile, land.name).append(",\"x\":");
+            zahl(zeile, land.x).append(",\"y\":");
+            zahl(zeile, land.y).append(",\"radius\":");
+            zahl(zeile, land.radius).append('}');
+            writer.append(zeile);
+            zeile.setLength(0);
+        }
+        writer.append(zeile).write("\n]}\n");
+        writer.flush();
+    }
+
+    /**
+     * Methode zum Anhängen eines Textes als JSON String mit Anführungszeichen und maskierten Sonderzeichen
+     *
+     * @param zeile StringBuilder, an den der Text angehängt wird
+     * @param text  Text, null wird als null ausgegeben
+     * @return Returns zeile
+     */
+    private static StringBuilder text(StringBuilder zeile, String text) {
+        if (text == null) {
+            return zeile.append("null");
+        }
+        zeile.append('"');
+        for (int k = 0; k < text.length(); k++) {
+            char c = text.charAt(k);
+            if (c == '"' || c == '\\') {
+                zeile.append('\\').append(c);
+            } else if (c < 0x20) {
+                zeile.append(String.format("\\u%04x", (int) c));
+            } else {
+                zeile.append(c);
+            }
+        }
+        return zeile.append('"');
+    }
+
+    /**
+     * @param zeile StringBuilder, an den die Zahl angehängt wird
+     * @param wert  Zahl, NaN und Unendlich gibt es in JSON nicht und werden als null ausgegeben
+     * @return Returns zeile
+     */
+    private static StringBuilder zahl(StringBuilder zeile, double wert) {
+        return Double.isFinite(wert) ? zeile.append(wert) : zeile.append("null");
+    }
+
+    /**
+     * Methode zum Formatieren einer Zahl mit 6 Nachkommastellen, liefert dasselbe Ergebnis wie printf mit %f.
+     * Wie bei printf wird die kürzeste Dezimaldarstellung der Zahl (Double.toString) kaufmännisch gerundet.
+     * Zahlen, deren Betrag nicht kleiner als 10^12 ist, sowie NaN und Unendlich werden mit String.format formatiert.
+     *
+     * @param zeile   StringBuilder, an den die Zahl angehängt wird
+     * @param wert    Zahl, die formatiert wird
+     * @param trenner Dezimaltrennzeichen
+     * @return Returns zeile
+     */
+    static StringBuilder formatiere(StringBuilder zeile, double wert, char trenner) {
+        if (!(Math.abs(wert) < 1e12)) {
+            return zeile.append(String.format(Locale.ROOT, "%f", wert).replace('.', trenner));
+        }
+        if (Double.compare(wert, 0.0) < 0) {    //Auch -0.0 wird wie bei printf mit Vorzeichen ausgegeben
+            zeile.append('-');
+        }
+        //Ziffern der kürzesten Darstellung ohne Punkt und Position des Punktes, z.B. 1.25E-5 -> 125 und -4
+        String text = Double.toString(Math.abs(wert));
+        int e = text.indexOf('E');
+        int ende = e < 0 ? text.length() : e;
+        int punkt = text.indexOf('.');
+        int komma = punkt + (e < 0 ? 0 : Integer.parseInt(text.substring(e + 1)));
+        //Ziffern bis zur 6. Nachkommastelle als ganze Zahl, danach anhand der nächsten Ziffer runden
+        long zahl = 0;
+        int stelle = 0;
+        for (int k = 0; k < ende && stelle < komma + STELLEN; k++) {
+            if (k != punkt) {
+                zahl = zahl * 10 + (text.charAt(k) - '0');
+                stelle++;
+            }
+        }
+        for (; stelle < komma + STELLEN; stelle++) {
+            zahl *= 10;
+        }
+        int naechste = -1;
+        for (int k = 0, s = 0; k < ende; k++) {
+            if (k != punkt && s++ == komma + STELLEN) {
+                naechste = text.charAt(k) - '0';
+                break;
+            }
+        }
+        if (naechste >= 5) {
+            zahl++;
+        }
+        zeile.append(zahl / FAKTOR).append(trenner);
+        long rest = zahl % FAKTOR;
+        for (long f = FAKTOR / 10; f > rest && f > 1; f /= 10) {
+            zeile.append('0');
+        }
+        return zeile.append(rest);
+    }
+
     /**
      * Methode zum Ausgeben eines Fehlers. Wenn beim Einlesen oder im Hauptalgorithmus ein Fehler entsteht, wird er in die Ausgabedatei geschrieben.
      * Falls beim Ausgeben ein Fehler entsteht,
@@ -86,11 +251,23 @@ public class Ausgabe {
      * @throws Exception Wirft Exception, falls Fehler beim Schreiben in Datei entsteht.
      */
     public File ausgabeFehler(String text, String fehler, String datei, String pfad) throws Exception {
-        FileWriter fileWriter = new FileWriter(pfad + datei);
-        PrintWriter printWriter = new PrintWriter(fileWriter);
-        printWriter.printf("Fehler in Datei:\n%s %s", text, fehler);
-        printWriter.close();
+        try (OutputStream out = Files.newOutputStream(Paths.get(pfad + datei))) {
+            ausgabeFehler(text, fehler, out);
+        }
         return new File(pfad + datei);
+    }
 
+    /**
+     * Methode zum Ausgeben eines Fehlers in einen Stream. Der Stream wird am Ende geleert, aber nicht geschlossen.
+     *
+     * @param text   Text, der als Hilfestellung dient, enthält Informationen zur Klasse, die das Problem hat und zur Art des Fehlers
+     * @param fehler Details zum Fehler, entspricht exception.getMessage()
+     * @param out    Stream, in den geschrieben wird
+     * @throws IOException Falls Fehler beim Schreiben entsteht.
+     */
+    public void ausgabeFehler(String text, String fehler, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write("Fehler in Datei:\n" + text + " " + fehler);
+        writer.flush();
     }
 }
@@ -0,0 +1,372 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.InvalidPropertiesFormatException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+/**
+ * Lokaler Dienst, der Layouts über HTTP berechnet, damit nicht für jede Anfrage eine neue JVM gestartet werden muss.
+ * Der Dienst nutzt den HTTP Server des JDK und ist nur über localhost erreichbar.
+ * <p>
+ * <code>POST /layout</code> mit dem Inhalt einer Eingabedatei (UTF-8) als Rumpf liefert die gnuplot Ausgabe,
+ * <code>POST /layout?format=json</code> die Koordinaten als JSON (siehe {@link Ausgabe#ausgabeJson}).
+ * Bei mehreren Kennwerten (siehe {@link Einlesen#leseDatei}) enthält die Antwort alle Kennwerte.
+ * Fehler beim Einlesen werden wie in der Ausgabedatei mit Status 400 zurückgegeben.
+ * <code>GET /status</code> liefert die Anzahl der Einträge, die Größe und die Treffer des Speichers.
+ * <p>
+ * Ergebnisse werden in einem LRU Speicher mit begrenzter Größe in Bytes gehalten. Der Schlüssel ist der SHA-256 Hash
+ * der normalisierten Eingabe (ohne Kommentare, leere Zeilen und \r) und des Formats. Gleichzeitige Anfragen mit demselben Schlüssel
+ * werden zusammengefasst: nur die erste berechnet das Layout, die anderen warten auf ihr Ergebnis.
+ * Mit Zeitbudget (--budget) hängt das Layout von der Rechenzeit ab, dann werden keine Ergebnisse gespeichert.
+ * Alle Anfragen nutzen denselben Algorithmus mit den Optionen, mit denen der Dienst gestartet wurde.
+ *
+ * @author ehamada
+ */
+public class Dienst {
+    /**
+     * Attribute:
+     *
+     * @algorithmus Algorithmus, mit dem alle Layouts berechnet werden
+     * @speicher LRU Speicher der fertigen Antworten
+     * @laufend Berechnungen, die gerade laufen, nach Schlüssel
+     * @server HTTP Server, null solange der Dienst nicht gestartet ist
+     */
+    private final Algorithmus algorithmus;
+    private final Speicher speicher;
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> laufend = new ConcurrentHashMap<>();
+    private HttpServer server = null;
+
+    /**
+     * Konstruktor der Klasse
+     *
+     * @param algorithmus Algorithmus, mit dem alle Layouts berechnet werden
+     * @param maxBytes    Maximale Größe des Speichers in Bytes, 0 schaltet den Speicher ab, mit Zeitbudget immer abgeschaltet
+     */
+    public Dienst(Algorithmus algorithmus, long maxBytes) {
+        this.algorithmus = algorithmus;
+        this.speicher = new Speicher(algorithmus.zeitbudget() == null ? maxBytes : 0);
+    }
+
+    /**
+     * Methode zum Starten des Dienstes auf localhost. Die Anfragen werden mit einem Thread pro Prozessor bearbeitet.
+     *
+     * @param port Port, 0 für einen freien Port
+     * @return Returns Port, auf dem der Dienst läuft
+     * @throws IOException Falls der Port nicht geöffnet werden kann
+     */
+    public int starte(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/layout", this::layout);
+        this.server.createContext("/status", this::status);
+        this.server.setExecutor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()));
+        this.server.start();
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * Methode zum Beenden des Dienstes, laufende Anfragen werden noch beantwortet
+     */
+    public void stoppe() {
+        this.server.stop(1);
+    }
+
+    private void layout(HttpExchange anfrage) throws IOException {
+        try {
+            if (!anfrage.getRequestMethod().equals("POST")) {
+                antworte(anfrage, 405, "text/plain; charset=utf-8", "Nur POST wird unterstützt".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            boolean json;
+            try {
+                json = "json".equals(parameter(anfrage.getRequestURI().getRawQuery(), "format"));
+            } catch (IllegalArgumentException e) {
+                antworte(anfrage, 400, "text/plain; charset=utf-8", ("Ungültige Query: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            String eingabe = normalisiere(new String(anfrage.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            String schluessel = hash(eingabe + '\0' + (json ? "json" : "gnuplot"));
+            String typ = json ? "application/json; charset=utf-8" : "text/plain; charset=utf-8";
+            try {
+                antworte(anfrage, 200, typ, ergebnis(schluessel, eingabe, json));
+            } catch (ExecutionException e) {
+                Throwable fehler = e.getCause();
+                String text;
+                if (fehler instanceof NumberFormatException) {
+                    text = "Datei konnte nicht eingelesen werden, Ungültiges Format beim Parsen:";
+                } else if (fehler instanceof InvalidPropertiesFormatException) {
+                    text = "Datei konnte nicht eingelesen werden:";
+                } else if (fehler instanceof Eingabefehler) {
+                    text = "Unerwarteter Fehler ist aufgetreten beim Einlesen der Datei: ";
+                    fehler = fehler.getCause();
+                } else {
+                    antworte(anfrage, 500, "text/plain; charset=utf-8", ("Unerwarteter Fehler: " + fehler).getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                new Ausgabe().ausgabeFehler(text, fehler.getMessage(), out);
+                antworte(anfrage, 400, "text/plain; charset=utf-8", out.toByteArray());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                antworte(anfrage, 503, "text/plain; charset=utf-8", new byte[0]);
+            }
+        } finally {
+            anfrage.close();
+        }
+    }
+
+    /**
+     * Methode zum Lesen eines Parameters aus der Query einer URL (name=wert, getrennt durch &amp;, URL-kodiert)
+     *
+     * @param query Query ohne ?, wie von {@link java.net.URI#getRawQuery}, darf null sein
+     * @param name  Name des Parameters
+     * @return Returns dekodierter Wert des ersten Parameters mit diesem Namen, "" ohne Wert, null falls er fehlt
+     * @throws IllegalArgumentException Falls die Query ungültig kodiert ist
+     */
+    static String parameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String paar : query.split("&")) {
+            int gleich = paar.indexOf('=');
+            String schluessel = URLDecoder.decode(gleich < 0 ? paar : paar.substring(0, gleich), StandardCharsets.UTF_8);
+            if (schluessel.equals(name)) {
+                return gleich < 0 ? "" : URLDecoder.decode(paar.substring(gleich + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private void status(HttpExchange anfrage) throws IOException {
+        try {
+            antworte(anfrage, 200, "application/json; charset=utf-8", this.speicher.toString().getBytes(StandardCharsets.UTF_8));
+        } finally {
+            anfrage.close();
+        }
+    }
+
+    private static void antworte(HttpExchange anfrage, int status, String typ, byte[] rumpf) throws IOException {
+        anfrage.getResponseHeaders().set("Content-Type", typ);
+        anfrage.sendResponseHeaders(status, rumpf.length == 0 ? -1 : rumpf.length);
+        if (rumpf.length > 0) {
+            try (OutputStream out = anfrage.getResponseBody()) {
+                out.write(rumpf);
+            }
+        }
+    }
+
+    /**
+     * Methode zum Holen einer Antwort aus dem Speicher oder zum Berechnen. Läuft bereits eine Berechnung mit demselben Schlüssel,
+     * wird auf deren Ergebnis gewartet. Fehler werden nicht gespeichert, die nächste Anfrage versucht es erneut.
+     *
+     * @param schluessel Hash der normalisierten Eingabe und des Formats
+     * @param eingabe    normalisierte Eingabe
+     * @param json       true für JSON, false für die gnuplot Ausgabe
+     * @return Returns Rumpf der Antwort
+     * @throws ExecutionException   Fehler beim Einlesen oder Berechnen, die Ursache ist der eigentliche Fehler
+     * @throws InterruptedException Falls der Thread beim Warten unterbrochen wird
+     */
+    byte[] ergebnis(String schluessel, String eingabe, boolean json) throws ExecutionException, InterruptedException {
+        byte[] fertig = this.speicher.hole(schluessel);
+        if (fertig != null) {
+            return fertig;
+        }
+        CompletableFuture<byte[]> neu = new CompletableFuture<>();
+        CompletableFuture<byte[]> vorhanden = this.laufend.putIfAbsent(schluessel, neu);
+        if (vorhanden != null) {
+            return vorhanden.get();
+        }
+        try {
+            //Eine andere Berechnung kann zwischen hole und putIfAbsent fertig geworden sein
+            fertig = this.speicher.pruefe(schluessel);
+            if (fertig == null) {
+                fertig = berechne(eingabe, json);
+                this.speicher.lege(schluessel, fertig);
+            }
+            neu.complete(fertig);
+        } catch (Throwable t) {
+            neu.completeExceptionally(t);
+        } finally {
+            this.laufend.remove(schluessel);
+        }
+        return neu.get();
+    }
+
+    /**
+     * Methode zum Berechnen einer Antwort wie in Main: Einlesen, Hauptalgorithmus und Ausgabe.
+     * Hat die Eingabe mehrere Kennwerte, werden wie in Main alle gleichzeitig berechnet (siehe {@link Kennwerte})
+     * und nacheinander ausgegeben: die gnuplot Ausgaben getrennt durch eine leere Zeile wie mit --stdout, als JSON ein Array der Objekte.
+     *
+     * @param eingabe Inhalt der Eingabedatei
+     * @param json    true für JSON, false für die gnuplot Ausgabe
+     * @return Returns Rumpf der Antwort
+     * @throws Exception Fehler beim Einlesen, unerwartete Fehler verpackt in Eingabefehler
+     */
+    private byte[] berechne(String eingabe, boolean json) throws Exception {
+        Einlesen einlesen = new Einlesen();
+        ArrayList<Land> laender;
+        try {
+            laender = einlesen.leseText(eingabe);
+        } catch (NumberFormatException | InvalidPropertiesFormatException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new Eingabefehler(e);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String[] namen = einlesen.getNamen();
+        if (namen.length == 1) {
+            int iterationen = this.algorithmus.berechne(laender, null).iterationen;
+            if (json) {
+                new Ausgabe().ausgabeJson(laender, out, iterationen, einlesen.getName());
+            } else {
+                new Ausgabe().ausgabe(laender, out, iterationen, einlesen.getName());
+            }
+            return out.toByteArray();
+        }
+        Kennwerte kennwerte = new Kennwerte(laender, einlesen.getRadien());
+        Ergebnis[] ergebnisse = kennwerte.berechne(this.algorithmus, null, false, Runtime.getRuntime().availableProcessors());
+        if (json) {
+            out.write('[');
+        }
+        for (int k = 0; k < namen.length; k++) {
+            if (json) {
+                if (k > 0) {
+                    out.write(',');
+                }
+                new Ausgabe().ausgabeJson(kennwerte.laender(k), out, ergebnisse[k].iterationen, namen[k]);
+            } else {
+                new Ausgabe().ausgabe(kennwerte.laender(k), out, ergebnisse[k].iterationen, namen[k]);
+                out.write('\n');
+            }
+        }
+        if (json) {
+            out.write(']');
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Methode zum Normalisieren einer Eingabe, damit Eingaben, die gleich eingelesen werden, denselben Schlüssel bekommen.
+     * Entfernt wie Einlesen Kommentare ab # und danach leere Zeilen, außerdem \r am Zeilenende.
+     *
+     * @param eingabe Inhalt einer Eingabedatei
+     * @return Returns normalisierte Eingabe, jede Zeile endet mit \n
+     */
+    static String normalisiere(String eingabe) {
+        StringBuilder normal = new StringBuilder(eingabe.length());
+        int start = 0;
+        while (start < eingabe.length()) {
+            int ende = eingabe.indexOf('\n', start);
+            if (ende < 0) {
+                ende = eingabe.length();
+            }
+            int kommentar = eingabe.indexOf('#', start);
+            int zeilenEnde = kommentar >= 0 && kommentar < ende ? kommentar : ende;
+            if (zeilenEnde == ende && zeilenEnde > start && eingabe.charAt(zeilenEnde - 1) == '\r') {
+                zeilenEnde--;
+            }
+            if (zeilenEnde > start) {
+                normal.append(eingabe, start, zeilenEnde).append('\n');
+            }
+            start = ende + 1;
+        }
+        return normal.toString();
+    }
+
+    /**
+     * @param text Text, der gehasht wird
+     * @return Returns SHA-256 Hash des Textes in UTF-8 als Hexadezimalzahl
+     */
+    private static String hash(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(2 * hash.length);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {   //SHA-256 muss jede Java Plattform unterstützen
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Unerwarteter Fehler beim Einlesen, wird wie in Main von Fehlern im Algorithmus unterschieden
+     */
+    private static class Eingabefehler extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        Eingabefehler(Exception ursache) {
+            super(ursache);
+        }
+    }
+
+    /**
+     * LRU Speicher der Antworten, begrenzt durch die Summe der Größen der Antworten in Bytes.
+     * Wird der Speicher zu groß, werden die am längsten nicht genutzten Antworten entfernt.
+     * Antworten, die allein größer als der Speicher sind, werden nicht gespeichert.
+     */
+    private static class Speicher {
+        private final long maxBytes;
+        private final LinkedHashMap<String, byte[]> eintraege = new LinkedHashMap<>(16, 0.75f, true);
+        private long bytes = 0;
+        private long treffer = 0;
+        private long fehlgriffe = 0;
+
+        Speicher(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized byte[] hole(String schluessel) {
+            byte[] wert = this.eintraege.get(schluessel);
+            if (wert != null) {
+                this.treffer++;
+            } else {
+                this.fehlgriffe++;
+            }
+            return wert;
+        }
+
+        /**
+         * Wie hole, aber ohne die Treffer zu zählen
+         */
+        synchronized byte[] pruefe(String schluessel) {
+            return this.eintraege.get(schluessel);
+        }
+
+        synchronized void lege(String schluessel, byte[] wert) {
+            if (wert.length > this.maxBytes) {
+                return;
+            }
+            byte[] alt = this.eintraege.put(schluessel, wert);
+            this.bytes += wert.length - (alt != null ? alt.length : 0);
+            Iterator<Map.Entry<String, byte[]>> it = this.eintraege.entrySet().iterator();
+            while (this.bytes > this.maxBytes) {
+                this.bytes -= it.next().getValue().length;
+                it.remove();
+            }
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "{\"eintraege\":" + this.eintraege.size() + ",\"bytes\":" + this.bytes + ",\"maxBytes\":" + this.maxBytes
+                    + ",\"treffer\":" + this.treffer + ",\"fehlgriffe\":" + this.fehlgriffe + "}\n";
+        }
+    }
+}
@@ -1,8 +1,12 @@
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.InvalidPropertiesFormatException;
 
 /**
@@ -16,10 +20,16 @@ public class Einlesen {
      * Attribute:
      *
      * @name Name des Kennwerts
+     * @namen Namen aller Kennwerte, nach KENNWERTE am ; getrennt, sonst nur name
      * @laender ArrayList mit den Ländern
+     * @radien Radien jedes Landes für alle Kennwerte, in der Reihenfolge von laender
+     * @KENNWERTE Anfang der ersten Zeile, der eine Datei mit mehreren Kennwerten kennzeichnet
      */
+    static final String KENNWERTE = "Kennwerte:";
     private String name;
+    private String[] namen;
     private ArrayList<Land> laender;
+    private ArrayList<double[]> radien;
 
     /**
      * Methode zum Einlesen einer Datei. Die Datei muss das folgende Format haben.
@@ -47,6 +57,10 @@ public class Einlesen {
      * A:  CZ <br>
      * CZ: PL <br>
      * </code>
+     * Beginnt die erste Zeile mit KENNWERTE, folgen darauf mehrere Namen getrennt durch ; (z.B. <code>Kennwerte: Fläche; Bevölkerung</code>),
+     * und auf den Namen jedes Landes ebenso viele Kennwerte und danach Längen- und Breitengrad, z.B. <code>D 357 83 10.0 51.3</code>.
+     * Ohne KENNWERTE ist die ganze erste Zeile wie bisher der Name des einzigen Kennwerts, auch wenn sie ein ; enthält.
+     * Die Radien aller Kennwerte liefert getRadien, der Radius jedes Landes ist der des ersten Kennwerts.
      *
      * @param datei Dateiname der Datei, die ausgelesen werden soll
      * @param pfad  Pfad zu der Datei
@@ -55,84 +69,124 @@ public class Einlesen {
      */
     public ArrayList<Land> leseDatei(String datei, String pfad) throws Exception {
         File file = new File(pfad + datei);
+        //Wie die Ausgabe immer UTF-8, unabhängig vom Zeichensatz der Plattform
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+            return lese(br);
+        }
+    }
 
-        BufferedReader br = new BufferedReader(new FileReader(file));
+    /**
+     * Methode zum Einlesen eines Textes im selben Format wie leseDatei, z.B. aus dem Rumpf einer Anfrage an den {@link Dienst}.
+     *
+     * @param text Inhalt einer Eingabedatei
+     * @return Returns ArrayList von Land, die die einzelnen ausgelesenen Länder enthält
+     * @throws Exception Falls Fehler beim Lesen auftreten, werden diese wie bei leseDatei weitergeleitet.
+     */
+    public ArrayList<Land> leseText(String text) throws Exception {
+        return lese(new BufferedReader(new StringReader(text)));
+    }
 
+    /**
+     * Methode zum Einlesen aller Zeilen eines Readers im Format von leseDatei. Der Reader wird nicht geschlossen.
+     *
+     * @param br Reader, aus dem die Zeilen gelesen werden
+     * @return Returns ArrayList von Land, die die einzelnen ausgelesenen Länder enthält
+     * @throws Exception Falls Fehler beim Lesen auftreten, werden diese an die aufrufende Klasse weitergeleitet und da behandelt.
+     */
+    private ArrayList<Land> lese(BufferedReader br) throws Exception {
         this.laender = new ArrayList<>();
+        this.radien = new ArrayList<>();
+        //Indizes, damit für jede Zeile nicht mehr alle bisherigen Länder durchsucht werden müssen
+        HashMap<String, Land> namen = new HashMap<>();      //Name -> Land, zum Finden doppelter Namen und der Länder in den Beziehungen
+        HashMap<Lage, Land> lagen = new HashMap<>();        //Lage -> Land, zum Finden von Ländern mit derselben Lage
+        HashMap<Land, HashSet<Land>> beziehungen = new HashMap<>(); //Bereits eingetragene Beziehungen, ersetzt nachbarn.contains
         String line;
         int i = 0;
 
         while ((line = br.readLine()) != null) {
-            if (line.contains("#")) {
+            int kommentar = line.indexOf('#');
+            if (kommentar >= 0) {
                 //Falls Zeile ein # enthält, also ein Kommentar enthält (nicht zwangsläufig am Anfang der Zeile),
                 // wird alles ab dem # abgeschnitten, der Kommentar also ignoriert.
-                line = line.split("#")[0];
+                line = line.substring(0, kommentar);
             }
             if (line.length() != 0) {   //Ignoriere leere Zeilen
                 if (i == 0) {
                     // suche erste richtige Zeile -> Name
                     this.name = line;
-                } else if (line.contains(":")) {    //Falls Zeile einen Doppelpunkt enthält, handelt es sich um die Beziehungen
+                    this.namen = new String[]{line};
+                    if (line.trim().startsWith(KENNWERTE)) {
+                        this.name = line.trim().substring(KENNWERTE.length()).trim();
+                        this.namen = this.name.split(";");
+                        for (int k = 0; k < this.namen.length; k++) {
+                            this.namen[k] = this.namen[k].trim();
+                        }
+                    }
+                } else if (line.indexOf(':') >= 0) {    //Falls Zeile einen Doppelpunkt enthält, handelt es sich um die Beziehungen
                     String[] split = line.split(":");   //Teile am Doppelpunkt, erster Teil = Land, zweiter Teil = Liste von Nachbarn vom Land
                     String name = split[0];
 
                     if(split.length!=2){
                         throw new InvalidPropertiesFormatException("Eine Seite der Beziehung ist leer");
                     }
-                    String[] nachbarn = split[1].trim().split("( |\t)+");   //Teile Liste von Nachbarn an Leerzeichen oder Tabs
-                    Land erstesLand = new Land(-1, -1, -1, "False"); //Erstelle Dummy Land, wird später überschrieben
-                    for (Land land : this.laender) {
-                        if (land.name.equals(name)) {   //Iteriere über alle Länder und suche Land, welches dem ersten Element entspricht
-                            erstesLand = land;
-                        }
-                    }
-                    if(!this.laender.contains(erstesLand)){
+                    String[] nachbarn = zerlege(split[1].trim());   //Teile Liste von Nachbarn an Leerzeichen oder Tabs
+                    Land erstesLand = namen.get(name);  //Suche Land, welches dem ersten Element entspricht
+                    if(erstesLand == null){
                         throw new InvalidPropertiesFormatException("Land mit dem Namen "+name+" existiert nicht");
                     }
                     for (int j = 0; j < nachbarn.length; j++) {     //Iteriere über Liste von Nachbarn
-                        for (Land land : this.laender) {            //Iteriere für jeden Nachbarn über Liste von Ländern
-                            if (land.name.equals(nachbarn[j])) {
-                                if(land.nachbarn.contains(erstesLand)){  //überspringe doppelte Länder
-                                    continue;
-                                }
-                                //Wenn richtiges Element gefunden, füge Nachbar als Nachbar vom erstes Land hinzu
-                                // und das erste Element als Nachbar vom Nachbarn (um bidirektional zu sein)
-                                erstesLand.nachbarn.add(land);
-                                land.nachbarn.add(erstesLand);
-                            } //Falls Beziehung vorhanden, aber Land nicht existiert, wird Land nicht als Beziehung hinzugefügt
+                        Land land = namen.get(nachbarn[j]);
+                        if (land == null) {
+                            continue;   //Falls Beziehung vorhanden, aber Land nicht existiert, wird Land nicht als Beziehung hinzugefügt
+                        }
+                        HashSet<Land> bekannt = beziehungen.computeIfAbsent(land, l -> new HashSet<>());
+                        if(!bekannt.add(erstesLand)){  //überspringe doppelte Länder
+                            continue;
                         }
+                        beziehungen.computeIfAbsent(erstesLand, l -> new HashSet<>()).add(land);
+                        //Füge Nachbar als Nachbar vom erstes Land hinzu
+                        // und das erste Element als Nachbar vom Nachbarn (um bidirektional zu sein)
+                        erstesLand.nachbarn.add(land);
+                        land.nachbarn.add(erstesLand);
                     }
 
                 } else {
                     //Zeile enthält keinen Doppelpunkt
-                    String[] split = line.split("( |\t)+"); //Splitte an Leerzeichen oder Tabs
+                    String[] split = zerlege(line); //Splitte an Leerzeichen oder Tabs
                     String name = split[0];
                     //Versuche Werte zu parsen, wenn Fehler geworfen wird, behandle ihn in Main
                     //Wenn nicht parseble wird eine NumberFormatException geworfen
                     //Wenn nicht vorhanden wird eine NullpointerException geworfen (auch wenn Wert vorhanden sein muss, da File syntaktisch korrekt)
-                    int kennwert = Integer.parseInt(split[1]);
-                    if(kennwert<=0){
-                        throw new NumberFormatException("Fläche des Kreises kann nicht <=0 sein");
+                    int anzahl = this.namen.length;     //Anzahl der Kennwerte vor Längen- und Breitengrad
+                    if (anzahl > 1 && split.length < anzahl + 3) {
+                        throw new InvalidPropertiesFormatException("Land " + name + " hat nicht " + anzahl + " Kennwerte und eine Lage");
                     }
-                    double laenge = Double.parseDouble(split[2]);
-                    double breite = Double.parseDouble(split[3]);
+                    double[] kennwertRadien = new double[anzahl];
+                    for (int k = 0; k < anzahl; k++) {
+                        int kennwert = Integer.parseInt(split[1 + k]);
+                        if(kennwert<=0){
+                            throw new NumberFormatException("Fläche des Kreises kann nicht <=0 sein");
+                        }
+                        kennwertRadien[k] = berechneRadius(kennwert);   //Rufe Methode berechne Radius auf
+                    }
+                    double laenge = Double.parseDouble(split[anzahl + 1]);
+                    double breite = Double.parseDouble(split[anzahl + 2]);
                     if(Math.abs(laenge)>Double.MAX_VALUE || Math.abs(breite)>Double.MAX_VALUE ){
                         throw new NumberFormatException("Wert ist zu groß/ zu klein für Double");
                     }
-                    double radius = berechneRadius(kennwert);   //Rufe Methode berechne Radius auf
-                    Land land = new Land(laenge, breite, radius, name); //Erstelle neues Land mit den Werten und
+                    Land land = new Land(laenge, breite, kennwertRadien[0], name); //Erstelle neues Land mit den Werten und
                     //Dieser Teil wird immer vor der else if aufgerufen, daher wird hier nachbarn initialisiert
                     land.nachbarn = new ArrayList<>();
-                    boolean exists = false;
-                    for(Land doppelt: this.laender){    //prüfe ob Land schon existiert
-                        if(doppelt.name.equals(name)){
-                            exists = true;
-                        }else if(doppelt.x == laenge && doppelt.y == breite){
-                            throw new InvalidPropertiesFormatException("2 Länder haben dieselbe Lage, aber unterschiedliche Namen");
-                        }
+                    Lage lage = new Lage(laenge, breite);
+                    Land gleicheLage = lagen.get(lage);     //prüfe ob ein anderes Land dieselbe Lage hat
+                    if(gleicheLage != null && !gleicheLage.name.equals(name)){
+                        throw new InvalidPropertiesFormatException("2 Länder haben dieselbe Lage, aber unterschiedliche Namen");
                     }
-                    if(!exists) {
+                    if(!namen.containsKey(name)) {  //prüfe ob Land schon existiert
                         this.laender.add(land);     //Füge Land an Liste an.
+                        this.radien.add(kennwertRadien);
+                        namen.put(name, land);
+                        lagen.putIfAbsent(lage, land);
                     }
                 }
                 i++; //Wird benötigt um erste Zeile zu finden
@@ -146,6 +200,67 @@ public class Einlesen {
         return this.laender;
     }
 
+    /**
+     * Methode zum Zerlegen einer Zeile an einem oder mehreren Leerzeichen oder Tabs, ohne regulären Ausdruck.
+     * Das Ergebnis entspricht <code>zeile.split("( |\t)+")</code>: beginnt die Zeile mit einem Trenner, ist das erste Element leer,
+     * leere Elemente am Ende werden entfernt.
+     *
+     * @param zeile Zeile, die zerlegt werden soll
+     * @return Returns Array der einzelnen Werte
+     */
+    static String[] zerlege(String zeile) {
+        if (zeile.isEmpty()) {
+            return new String[]{zeile};
+        }
+        ArrayList<String> werte = new ArrayList<>(4);
+        int laenge = zeile.length();
+        int start = 0;
+        int k = 0;
+        while (k < laenge) {
+            char c = zeile.charAt(k);
+            if (c == ' ' || c == '\t') {
+                werte.add(zeile.substring(start, k));
+                while (k < laenge && (zeile.charAt(k) == ' ' || zeile.charAt(k) == '\t')) {
+                    k++;
+                }
+                start = k;
+            } else {
+                k++;
+            }
+        }
+        werte.add(zeile.substring(start));
+        int anzahl = werte.size();
+        while (anzahl > 0 && werte.get(anzahl - 1).isEmpty()) {    //Entferne leere Elemente am Ende
+            anzahl--;
+        }
+        return werte.subList(0, anzahl).toArray(new String[0]);
+    }
+
+    /**
+     * Lage eines Landes als Schlüssel für die Hashtabelle. Zwei Lagen sind gleich, wenn beide Koordinaten mit == gleich sind,
+     * also wie beim bisherigen Vergleich: 0.0 und -0.0 sind gleich, NaN ist mit keiner Lage gleich.
+     */
+    private static final class Lage {
+        private final double x;
+        private final double y;
+
+        private Lage(double x, double y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Lage && ((Lage) o).x == this.x && ((Lage) o).y == this.y;
+        }
+
+        @Override
+        public int hashCode() {
+            //+ 0.0 macht aus -0.0 eine 0.0, damit gleiche Lagen denselben Hash haben
+            return 31 * Double.hashCode(this.x + 0.0) + Double.hashCode(this.y + 0.0);
+        }
+    }
+
     /**
      * Methode zum berechnen des Radius. Dazu gilt die Formel
      * Kennwert = r^2*Math.PI <=> r= Math.sqrt(Kennwert/Math.PI)
@@ -166,4 +281,28 @@ public class Einlesen {
     public String getName() {
         return this.name;
     }
+
+    /**
+     * Getter für die Namen aller Kennwerte, bei einem Kennwert nur getName.
+     *
+     * @return Namen der Kennwerte
+     */
+    public String[] getNamen() {
+        return this.namen;
+    }
+
+    /**
+     * Getter für die Radien aller Kennwerte.
+     *
+     * @return Radien[kennwert][land], die Länder in der Reihenfolge der eingelesenen Liste
+     */
+    public double[][] getRadien() {
+        double[][] ergebnis = new double[this.namen.length][this.radien.size()];
+        for (int i = 0; i < this.radien.size(); i++) {
+            for (int k = 0; k < this.namen.length; k++) {
+                ergebnis[k][i] = this.radien.get(i)[k];
+            }
+        }
+        return ergebnis;
+    }
 }
@@ -0,0 +1,36 @@
+/**
+ * Einfache Hilfsklasse für das Ergebnis des Hauptalgorithmus. Da es eine Hilfsklasse ist, sind alle Attribute public.
+ *
+ * @author ehamada
+ * <p>
+ * Attribute <br>
+ * iterationen - Anzahl der Iterationen, die benötigt wurden, mit Zeitbudget bis zum zurückgegebenen besten Layout <br>
+ * epsilon - Veränderung in der letzten Iteration, mit Zeitbudget in der Iteration des besten Layouts <br>
+ * strategie - Verfahren, mit dem die Kräfte angewendet wurden <br>
+ * abbruch - Grund, aus dem das Iterationsverfahren beendet wurde <br>
+ * qualitaet - Qualität des Layouts, nur mit Zeitbudget berechnet, sonst null
+ */
+public class Ergebnis {
+    public final int iterationen;
+    public final double epsilon;
+    public final Strategie strategie;
+    public final Abbruch abbruch;
+    public final Qualitaet qualitaet;
+
+    /**
+     * Konstruktor der Klasse, erstellt ein neues Objekt der Klasse mit den übergebenen Werten
+     *
+     * @param iterationen Anzahl der Iterationen, die benötigt wurden
+     * @param epsilon     Veränderung in der letzten Iteration
+     * @param strategie   Verfahren, mit dem die Kräfte angewendet wurden
+     * @param abbruch     Grund, aus dem das Iterationsverfahren beendet wurde
+     * @param qualitaet   Qualität des Layouts, null wenn sie nicht berechnet wurde
+     */
+    public Ergebnis(int iterationen, double epsilon, Strategie strategie, Abbruch abbruch, Qualitaet qualitaet) {
+        this.iterationen = iterationen;
+        this.epsilon = epsilon;
+        this.strategie = strategie;
+        this.abbruch = abbruch;
+        this.qualitaet = qualitaet;
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Schnittstelle zum Beobachten des Hauptalgorithmus. Ist kein Listener gesetzt, werden die Messwerte nicht berechnet
+ * und die Iteration hat keinen zusätzlichen Aufwand.
+ * <p>
+ * Wird eine Instanz des Algorithmus von mehreren Threads gleichzeitig genutzt, wird auch der Listener von mehreren Threads
+ * gleichzeitig aufgerufen. Im Batchbetrieb bekommt jede Datei eine Kopie des Algorithmus mit einem Listener von fuer.
+ *
+ * @author ehamada
+ */
+public interface IterationsListener {
+
+    /**
+     * Wird nach jeder Iteration aufgerufen. Das Objekt mit den Messwerten wird in der nächsten Iteration wiederverwendet,
+     * darf also nicht gespeichert werden.
+     *
+     * @param messwerte Messwerte der Iteration
+     */
+    void iteration(Messwerte messwerte);
+
+    /**
+     * Wird vor jeder Iteration aufgerufen. Gibt der Listener false zurück, werden die Messwerte dieser Iteration nicht berechnet
+     * und iteration wird nicht aufgerufen. Die Zusammenfassung enthält dann nur die Iterationen, in denen der Listener aktiv war.
+     *
+     * @return Returns true, wenn die Messwerte der nächsten Iteration gebraucht werden
+     */
+    default boolean aktiv() {
+        return true;
+    }
+
+    /**
+     * Wird am Ende des Iterationsverfahrens aufgerufen.
+     *
+     * @param gesamt Zusammenfassung: Anzahl der Iterationen, epsilon und Überlappungen der letzten Iteration,
+     *               größte Verschiebung über alle Iterationen und Summe der Zeiten
+     */
+    void ende(Messwerte gesamt);
+
+    /**
+     * Liefert den Listener für die Berechnung einer bestimmten Eingabe (siehe {@link Algorithmus#kopie}),
+     * z.B. damit die Ausgaben im Batchbetrieb der Datei zugeordnet werden können.
+     *
+     * @param eingabe Name der Eingabe
+     * @return Returns Listener für die Eingabe, ohne Überschreiben dieser Listener selbst
+     */
+    default IterationsListener fuer(String eingabe) {
+        return this;
+    }
+}
@@ -0,0 +1,89 @@
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Listener, der die Messwerte des Hauptalgorithmus als Events an den Java Flight Recorder übergibt.
+ * Die Events werden nur geschrieben, wenn eine Aufnahme läuft, z.B. mit
+ * <code>java -XX:StartFlightRecording=filename=layout.jfr Main ...</code>.
+ * Die Events heißen groPro.Iteration und groPro.Zusammenfassung.
+ *
+ * @author ehamada
+ */
+public class JfrListener implements IterationsListener {
+
+    /**
+     * Ohne laufende Aufnahme werden die Messwerte nicht berechnet, da sie sonst verworfen würden
+     */
+    @Override
+    public boolean aktiv() {
+        return new IterationEvent().isEnabled();
+    }
+
+    @Override
+    public void iteration(Messwerte messwerte) {
+        IterationEvent event = new IterationEvent();
+        if (event.shouldCommit()) {
+            event.fuelle(messwerte);
+            event.commit();
+        }
+    }
+
+    @Override
+    public void ende(Messwerte gesamt) {
+        ZusammenfassungEvent event = new ZusammenfassungEvent();
+        if (event.shouldCommit()) {
+            event.fuelle(gesamt);
+            event.commit();
+        }
+    }
+
+    /**
+     * Gemeinsame Felder der Events
+     */
+    private abstract static class MesswerteEvent extends Event {
+        @Label("Länder")
+        int anzahl;
+        @Label("Iteration")
+        int iteration;
+        @Label("Epsilon")
+        double epsilon;
+        @Label("Größte Verschiebung")
+        double maxVerschiebung;
+        @Label("Überlappungen")
+        int ueberlappungen;
+        @Label("Anziehungsenergie")
+        double anziehungsEnergie;
+        @Label("Kräfte berechnen")
+        @Timespan(Timespan.NANOSECONDS)
+        long nanosKraefte;
+        @Label("Kräfte anwenden")
+        @Timespan(Timespan.NANOSECONDS)
+        long nanosAnwenden;
+
+        void fuelle(Messwerte m) {
+            this.anzahl = m.anzahl;
+            this.iteration = m.iteration;
+            this.epsilon = m.epsilon;
+            this.maxVerschiebung = m.maxVerschiebung;
+            this.ueberlappungen = m.ueberlappungen;
+            this.anziehungsEnergie = m.anziehungsEnergie;
+            this.nanosKraefte = m.nanosKraefte;
+            this.nanosAnwenden = m.nanosAnwenden;
+        }
+    }
+
+    @Name("groPro.Iteration")
+    @Label("Iteration")
+    @Category("groPro")
+    private static class IterationEvent extends MesswerteEvent {
+    }
+
+    @Name("groPro.Zusammenfassung")
+    @Label("Zusammenfassung")
+    @Category("groPro")
+    private static class ZusammenfassungEvent extends MesswerteEvent {
+    }
+}
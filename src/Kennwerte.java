@@ -0,0 +1,106 @@
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Berechnung mehrerer Kennwerte derselben Länder. Die Länder und ihre Nachbarschaften werden nur einmal eingelesen,
+ * für jeden Kennwert wird eine Kopie der Länder mit den Radien dieses Kennwerts erstellt und berechnet.
+ * <p>
+ * Die Kennwerte werden entweder gleichzeitig berechnet, jeder ab den geographischen Koordinaten,
+ * oder als Kette: jeder Kennwert startet mit dem Ergebnis des vorherigen (Warmstart, siehe {@link Startlayout}).
+ * Da sich bei verwandten Kennwerten meist nur die Größen ändern, braucht ein Kennwert in der Kette oft deutlich weniger Iterationen.
+ *
+ * @author ehamada
+ */
+public class Kennwerte {
+    /**
+     * Attribute:
+     *
+     * @layouts Länder jedes Kennwerts, nach berechne mit den berechneten Koordinaten
+     */
+    private final ArrayList<ArrayList<Land>> layouts = new ArrayList<>();
+
+    /**
+     * Konstruktor der Klasse, erstellt für jeden Kennwert eine Kopie der Länder
+     *
+     * @param laender Eingelesene Länder mit Nachbarn
+     * @param radien  Radien[kennwert][land] (siehe Einlesen.getRadien)
+     */
+    public Kennwerte(ArrayList<Land> laender, double[][] radien) {
+        for (double[] radius : radien) {
+            this.layouts.add(kopiere(laender, radius));
+        }
+    }
+
+    /**
+     * @param k Index des Kennwerts
+     * @return Returns Länder des Kennwerts
+     */
+    public ArrayList<Land> laender(int k) {
+        return this.layouts.get(k);
+    }
+
+    /**
+     * Methode zum Berechnen aller Kennwerte.
+     *
+     * @param algorithmus Algorithmus, mit dem die Koordinaten berechnet werden
+     * @param start       Startlayout für jeden Kennwert ohne Vorgänger (in der Kette nur der erste), null für einen normalen Start
+     * @param kette       true, wenn jeder Kennwert mit dem Ergebnis des vorherigen startet, false, wenn alle gleichzeitig berechnet werden
+     * @param threads     Anzahl der Threads, wenn gleichzeitig berechnet wird
+     * @return Returns Ergebnis jedes Kennwerts
+     * @throws ExecutionException   Falls die Berechnung eines Kennwerts fehlschlägt
+     * @throws InterruptedException Falls der Thread beim Warten unterbrochen wird
+     */
+    public Ergebnis[] berechne(Algorithmus algorithmus, Startlayout start, boolean kette, int threads)
+            throws ExecutionException, InterruptedException {
+        Ergebnis[] ergebnisse = new Ergebnis[this.layouts.size()];
+        if (kette) {
+            for (int k = 0; k < this.layouts.size(); k++) {
+                Startlayout vorgaenger = k == 0 ? start : Startlayout.aus(this.layouts.get(k - 1));
+                ergebnisse[k] = algorithmus.berechne(this.layouts.get(k), vorgaenger);
+            }
+            return ergebnisse;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, this.layouts.size())));
+        try {
+            ArrayList<Future<Ergebnis>> laufend = new ArrayList<>();
+            for (ArrayList<Land> layout : this.layouts) {
+                laufend.add(executor.submit(() -> algorithmus.berechne(layout, start)));
+            }
+            for (int k = 0; k < ergebnisse.length; k++) {
+                ergebnisse[k] = laufend.get(k).get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return ergebnisse;
+    }
+
+    /**
+     * Methode zum Kopieren der Länder mit neuen Radien. Die Nachbarn der Kopien verweisen auf die Kopien.
+     *
+     * @param laender Eingelesene Länder
+     * @param radius  Radius jedes Landes
+     * @return Returns kopierte Länder in derselben Reihenfolge
+     */
+    private static ArrayList<Land> kopiere(ArrayList<Land> laender, double[] radius) {
+        ArrayList<Land> kopie = new ArrayList<>(laender.size());
+        IdentityHashMap<Land, Land> zuordnung = new IdentityHashMap<>();
+        for (int i = 0; i < laender.size(); i++) {
+            Land land = laender.get(i);
+            Land neu = new Land(land.x, land.y, radius[i], land.name);
+            neu.nachbarn = new ArrayList<>(land.nachbarn.size());
+            kopie.add(neu);
+            zuordnung.put(land, neu);
+        }
+        for (int i = 0; i < laender.size(); i++) {
+            for (Land nachbar : laender.get(i).nachbarn) {
+                kopie.get(i).nachbarn.add(zuordnung.get(nachbar));
+            }
+        }
+        return kopie;
+    }
+}
@@ -0,0 +1,122 @@
+import java.util.Random;
+
+/**
+ * Schnittstelle für den Rechenkern des Hauptalgorithmus: die Prüfung auf Überlappung für alle Kandidaten aus dem Raster
+ * und die Summe der Verschiebungen eines Landes. Ohne Kern rechnet der Algorithmus wie bisher skalar.
+ * <p>
+ * Der Vektorkern (Klasse VektorKern) nutzt die Vector API (jdk.incubator.vector) und liegt im Ordner src-vector,
+ * da er nur mit dem Modul übersetzt werden kann:
+ * <code>javac --add-modules jdk.incubator.vector -d out src/*.java src-vector/*.java</code>,
+ * ausgeführt mit <code>java --add-modules jdk.incubator.vector -cp out Main ... --simd</code>.
+ * Ohne den Ordner oder das Modul wird er mit {@link #vektor()} nicht gefunden und der Algorithmus rechnet skalar.
+ *
+ * @author ehamada
+ */
+public interface Kern {
+
+    /**
+     * Methode zum Filtern der Kandidaten einer Suche im Raster auf die Länder, die sich mit Land i überlappen.
+     * Die überlappenden Länder werden an den Anfang von treffer.index geschrieben (in derselben Reihenfolge),
+     * ihre Kräfte (Distanz - Summe der Radien) an dieselbe Position in treffer.kraft. Das Land i selbst wird übersprungen.
+     *
+     * @param x       x Koordinaten der Länder
+     * @param y       y Koordinaten der Länder
+     * @param radius  Radien der Länder
+     * @param i       Index des Landes
+     * @param treffer Ergebnis der Suche im Raster, wird überschrieben
+     * @return Returns Anzahl der überlappenden Länder
+     */
+    int ueberlappungen(double[] x, double[] y, double[] radius, int i, Raster.Treffer treffer);
+
+    /**
+     * Methode zum Berechnen der Verschiebung eines Landes aus den Kräften seiner Partner,
+     * wenn alle Länder gleichzeitig verschoben werden. Das Ergebnis wird in verschiebungX[i] und verschiebungY[i] geschrieben.
+     *
+     * @param x             x Koordinaten der Länder
+     * @param y             y Koordinaten der Länder
+     * @param i             Index des Landes
+     * @param partner       Indizes der Partner
+     * @param kraft         Kraft jedes Partners
+     * @param anzahl        Anzahl der Partner
+     * @param value         Faktor, mit dem die Kraft multipliziert wird
+     * @param verschiebungX Puffer für die Verschiebung in x Richtung
+     * @param verschiebungY Puffer für die Verschiebung in y Richtung
+     */
+    void verschiebung(double[] x, double[] y, int i, int[] partner, double[] kraft, int anzahl, double value,
+                      double[] verschiebungX, double[] verschiebungY);
+
+    /**
+     * Methode zum Laden des Vektorkerns. Der Kern wird nur zurückgegeben, wenn er auf zufälligen Daten
+     * mit dem skalaren Kern übereinstimmt (siehe {@link #stimmtUeberein(Kern, Kern)}).
+     *
+     * @return Returns Vektorkern, null falls er nicht übersetzt wurde, das Modul fehlt oder er nicht übereinstimmt
+     */
+    static Kern vektor() {
+        Kern kern;
+        try {
+            kern = (Kern) Class.forName("VektorKern").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {    //Klasse nicht vorhanden oder Modul nicht geladen
+            return null;
+        }
+        return stimmtUeberein(new SkalarKern(), kern) ? kern : null;
+    }
+
+    /**
+     * Methode zum Vergleichen zweier Kerne auf zufälligen Daten. Die Überlappungen müssen genau übereinstimmen,
+     * die Verschiebungen bis auf Rundungsfehler, da ein Vektorkern die Summanden in anderer Reihenfolge addieren darf.
+     *
+     * @param erwartet Kern, der als richtig angenommen wird
+     * @param kern     Kern, der geprüft wird
+     * @return Returns true, wenn beide Kerne innerhalb der Toleranz übereinstimmen
+     */
+    static boolean stimmtUeberein(Kern erwartet, Kern kern) {
+        final double toleranz = 1e-9;
+        Random random = new Random(1);
+        int n = 1000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] radius = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextDouble() * 100;
+            y[i] = random.nextDouble() * 100;
+            radius[i] = 1 + random.nextDouble() * 5;
+        }
+        Raster.Treffer a = new Raster.Treffer();
+        Raster.Treffer b = new Raster.Treffer();
+        int[] partner = new int[n];
+        double[] kraft = new double[n];
+        double[] erwartetX = new double[n];
+        double[] erwartetY = new double[n];
+        double[] kernX = new double[n];
+        double[] kernY = new double[n];
+        for (int i = 0; i < n; i++) {
+            //Zufällige Kandidaten mit unterschiedlicher Anzahl, damit auch die Reste nach vollen Vektoren geprüft werden
+            int anzahl = random.nextInt(70);
+            a.anzahl = 0;
+            b.anzahl = 0;
+            for (int k = 0; k < anzahl; k++) {
+                int j = random.nextInt(n);
+                a.add(j);
+                b.add(j);
+                partner[k] = j == i ? (j + 1) % n : j;
+                kraft[k] = random.nextGaussian();
+            }
+            int gefunden = erwartet.ueberlappungen(x, y, radius, i, a);
+            if (kern.ueberlappungen(x, y, radius, i, b) != gefunden) {
+                return false;
+            }
+            for (int k = 0; k < gefunden; k++) {
+                if (a.index[k] != b.index[k] || Math.abs(a.kraft[k] - b.kraft[k]) > toleranz * (1 + Math.abs(a.kraft[k]))) {
+                    return false;
+                }
+            }
+            erwartet.verschiebung(x, y, i, partner, kraft, anzahl, 0.005, erwartetX, erwartetY);
+            kern.verschiebung(x, y, i, partner, kraft, anzahl, 0.005, kernX, kernY);
+            if (Math.abs(erwartetX[i] - kernX[i]) > toleranz * (1 + Math.abs(erwartetX[i]))
+                    || Math.abs(erwartetY[i] - kernY[i]) > toleranz * (1 + Math.abs(erwartetY[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,293 @@
+import java.util.Arrays;
+
+/**
+ * Zerlegung des Modells in Zusammenhangskomponenten des Nachbarschaftsgraphen.
+ * Länder aus verschiedenen Komponenten ziehen sich nie an, sie stoßen sich nur bei Überlappungen ab.
+ * Jede Komponente kann daher als eigenes Teilmodell berechnet werden, danach werden die Komponenten
+ * mit packe als Ganzes verschoben, bis sich keine Länder verschiedener Komponenten mehr überlappen.
+ * Gelingt das nicht in MAX_RUNDEN Runden, werden die Komponenten stattdessen nach ihren umgebenden Rechtecken in Reihen gelegt.
+ * <p>
+ * Die Länder jeder Komponente werden wie das Modell im CSR Format gespeichert: die Länder von Komponente k stehen in
+ * laender[start[k]] bis laender[start[k + 1] - 1], aufsteigend sortiert. Komponenten sind nach ihrem kleinsten Land sortiert.
+ *
+ * @author ehamada
+ */
+public class Komponenten {
+    /**
+     * Attribute:
+     *
+     * @anzahl Anzahl der Komponenten
+     * @komponente Komponente jedes Landes
+     * @lokal Index jedes Landes in seinem Teilmodell
+     * @start Startposition der Länder jeder Komponente in laender, hat anzahl + 1 Einträge
+     * @laender Indizes der Länder aller Komponenten
+     * @MAX_RUNDEN Maximale Anzahl an Runden beim Packen, danach wird in Reihen gelegt
+     */
+    public final int anzahl;
+    public final int[] komponente;
+    private final int[] lokal;
+    private final int[] start;
+    private final int[] laender;
+    private static final int MAX_RUNDEN = 10000;
+
+    /**
+     * Konstruktor der Klasse, sucht die Komponenten mit einer Breitensuche über die Nachbarn im Modell
+     *
+     * @param modell Modell, das zerlegt wird
+     */
+    public Komponenten(Modell modell) {
+        this.komponente = new int[modell.anzahl];
+        this.lokal = new int[modell.anzahl];
+        Arrays.fill(this.komponente, -1);
+        int[] warteschlange = new int[modell.anzahl];
+        int[] groesse = new int[modell.anzahl + 1];
+        int k = 0;
+        for (int i = 0; i < modell.anzahl; i++) {
+            if (this.komponente[i] >= 0) {
+                continue;
+            }
+            int kopf = 0;
+            int ende = 0;
+            warteschlange[ende++] = i;
+            this.komponente[i] = k;
+            while (kopf < ende) {
+                int land = warteschlange[kopf++];
+                for (int n = modell.nachbarStart[land]; n < modell.nachbarStart[land + 1]; n++) {
+                    int j = modell.nachbarIndex[n];
+                    if (this.komponente[j] < 0) {
+                        this.komponente[j] = k;
+                        warteschlange[ende++] = j;
+                    }
+                }
+            }
+            groesse[k++] = ende;
+        }
+        this.anzahl = k;
+        this.start = new int[k + 1];
+        for (int c = 0; c < k; c++) {
+            this.start[c + 1] = this.start[c] + groesse[c];
+        }
+        //Länder aufsteigend einsortieren, damit die Reihenfolge in jedem Teilmodell der im Modell entspricht
+        this.laender = new int[modell.anzahl];
+        int[] position = Arrays.copyOf(this.start, k);
+        for (int i = 0; i < modell.anzahl; i++) {
+            int c = this.komponente[i];
+            this.lokal[i] = position[c] - this.start[c];
+            this.laender[position[c]++] = i;
+        }
+    }
+
+    /**
+     * @param k Index der Komponente
+     * @return Returns Anzahl der Länder in der Komponente
+     */
+    public int groesse(int k) {
+        return this.start[k + 1] - this.start[k];
+    }
+
+    /**
+     * Methode zum Erstellen des Teilmodells einer Komponente. Übernimmt Koordinaten, alte Koordinaten, Radien und Nachbarn.
+     *
+     * @param modell Modell, aus dem die Komponenten berechnet wurden
+     * @param k      Index der Komponente
+     * @return Returns Teilmodell mit den Ländern der Komponente in aufsteigender Reihenfolge
+     */
+    public Modell teilModell(Modell modell, int k) {
+        int n = groesse(k);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] radius = new double[n];
+        double[] altX = new double[n];
+        double[] altY = new double[n];
+        int[] nachbarStart = new int[n + 1];
+        for (int a = 0; a < n; a++) {
+            int i = this.laender[this.start[k] + a];
+            x[a] = modell.x[i];
+            y[a] = modell.y[i];
+            radius[a] = modell.radius[i];
+            altX[a] = modell.altX[i];
+            altY[a] = modell.altY[i];
+            nachbarStart[a + 1] = nachbarStart[a] + modell.nachbarStart[i + 1] - modell.nachbarStart[i];
+        }
+        //Alle Nachbarn liegen in derselben Komponente, die lokalen Indizes sind wie die globalen aufsteigend sortiert
+        int[] nachbarIndex = new int[nachbarStart[n]];
+        for (int a = 0; a < n; a++) {
+            int i = this.laender[this.start[k] + a];
+            for (int m = modell.nachbarStart[i], b = nachbarStart[a]; m < modell.nachbarStart[i + 1]; m++, b++) {
+                nachbarIndex[b] = this.lokal[modell.nachbarIndex[m]];
+            }
+        }
+        return new Modell(x, y, radius, altX, altY, nachbarStart, nachbarIndex);
+    }
+
+    /**
+     * Methode zum Übernehmen der berechneten Koordinaten eines Teilmodells in das Modell
+     *
+     * @param modell Modell, aus dem die Komponenten berechnet wurden
+     * @param k      Index der Komponente
+     * @param teil   Teilmodell der Komponente
+     */
+    public void uebernehme(Modell modell, int k, Modell teil) {
+        for (int a = 0; a < teil.anzahl; a++) {
+            int i = this.laender[this.start[k] + a];
+            modell.x[i] = teil.x[a];
+            modell.y[i] = teil.y[a];
+            modell.altX[i] = teil.altX[a];
+            modell.altY[i] = teil.altY[a];
+        }
+    }
+
+    /**
+     * Methode zum Packen der einzeln berechneten Komponenten. Die Komponenten werden nach ihrer Größe geordnet,
+     * die größte bleibt an ihrer Stelle. Überlappen sich Länder zweier Komponenten, wird nur die kleinere verschoben,
+     * und zwar als Ganzes entlang einer festen Richtung vom Schwerpunkt aller Länder zu ihrem eigenen Schwerpunkt.
+     * Pro Runde wird jede Komponente um ihre größte Überlappung verschoben. Da sich eine Komponente nur von größeren entfernt
+     * und nie zurück bewegt, kommt zuerst die zweitgrößte frei, dann die drittgrößte usw.
+     * Das Layout innerhalb einer Komponente und die grobe Lage der Komponenten zueinander bleiben dabei erhalten.
+     * Zeigt die Richtung fast quer zur Überlappung, verringert eine Verschiebung die Überlappung aber kaum.
+     * Überlappen sich nach MAX_RUNDEN Runden noch Komponenten, werden sie mit reihe überlappungsfrei in Reihen gelegt
+     * (die grobe Lage geht dabei verloren) und es wird eine Meldung auf die Standardfehlerausgabe geschrieben.
+     *
+     * @param modell Modell mit den Koordinaten aller Komponenten
+     * @return Returns Anzahl der benötigten Runden, MAX_RUNDEN wenn in Reihen gelegt wurde
+     */
+    public int packe(Modell modell) {
+        if (this.anzahl < 2) {
+            return 0;
+        }
+        //Rang jeder Komponente, 0 für die größte
+        Integer[] reihenfolge = new Integer[this.anzahl];
+        for (int k = 0; k < this.anzahl; k++) {
+            reihenfolge[k] = k;
+        }
+        Arrays.sort(reihenfolge, (a, b) -> groesse(b) - groesse(a));
+        int[] rang = new int[this.anzahl];
+        for (int r = 0; r < this.anzahl; r++) {
+            rang[reihenfolge[r]] = r;
+        }
+        //Richtung jeder Komponente vom Schwerpunkt aller Länder weg
+        double rMax = 0;
+        double rMin = Double.MAX_VALUE;
+        double mitteX = 0;
+        double mitteY = 0;
+        double[] richtungX = new double[this.anzahl];
+        double[] richtungY = new double[this.anzahl];
+        for (int i = 0; i < modell.anzahl; i++) {
+            rMax = Double.max(rMax, modell.radius[i]);
+            rMin = Double.min(rMin, modell.radius[i]);
+            mitteX += modell.x[i] / modell.anzahl;
+            mitteY += modell.y[i] / modell.anzahl;
+            richtungX[this.komponente[i]] += modell.x[i] / groesse(this.komponente[i]);
+            richtungY[this.komponente[i]] += modell.y[i] / groesse(this.komponente[i]);
+        }
+        for (int k = 0; k < this.anzahl; k++) {
+            double dx = richtungX[k] - mitteX;
+            double dy = richtungY[k] - mitteY;
+            double laenge = Math.sqrt(dx * dx + dy * dy);
+            richtungX[k] = laenge > 0 ? dx / laenge : 1;     //Liegt die Komponente genau in der Mitte, wird sie nach rechts verschoben
+            richtungY[k] = laenge > 0 ? dy / laenge : 0;
+        }
+        double abstand = rMin * 0.01;    //Mindestschritt, damit auch streifende Überlappungen aufgelöst werden
+
+        Raster raster = new Raster(2 * rMax);
+        Raster.Treffer treffer = new Raster.Treffer();
+        double[] schritt = new double[this.anzahl];
+        int runden = 0;
+        while (true) {
+            boolean ueberlappt = false;
+            raster.baue(modell.x, modell.y, modell.anzahl);
+            for (int i = 0; i < modell.anzahl; i++) {
+                raster.suche(modell.x[i], modell.y[i], treffer);
+                for (int t = 0; t < treffer.anzahl; t++) {
+                    int j = treffer.index[t];
+                    int ki = this.komponente[i];
+                    int kj = this.komponente[j];
+                    if (j <= i || ki == kj) {
+                        continue;
+                    }
+                    double dx = modell.x[i] - modell.x[j];
+                    double dy = modell.y[i] - modell.y[j];
+                    double tiefe = modell.radius[i] + modell.radius[j] - Math.sqrt(dx * dx + dy * dy);
+                    if (tiefe > 0) {
+                        int kleiner = rang[ki] > rang[kj] ? ki : kj;
+                        schritt[kleiner] = Double.max(schritt[kleiner], tiefe + abstand);
+                        ueberlappt = true;
+                    }
+                }
+            }
+            if (!ueberlappt) {
+                return runden;
+            }
+            if (runden == MAX_RUNDEN) {
+                System.err.println("Komponenten überlappen sich nach " + MAX_RUNDEN + " Runden noch, sie werden in Reihen gelegt");
+                reihe(modell, reihenfolge, abstand);
+                return runden;
+            }
+            for (int i = 0; i < modell.anzahl; i++) {
+                int k = this.komponente[i];
+                modell.x[i] += richtungX[k] * schritt[k];
+                modell.y[i] += richtungY[k] * schritt[k];
+            }
+            Arrays.fill(schritt, 0);
+            runden++;
+        }
+    }
+
+    /**
+     * Methode zum Legen der Komponenten in Reihen nach ihren umgebenden Rechtecken (Mittelpunkte plus Radius).
+     * Die größte Komponente bleibt an ihrer Stelle und beginnt die erste Reihe, die anderen folgen nach ihrer Größe
+     * von links nach rechts mit dem Abstand dazwischen. Eine Reihe ist höchstens so breit wie die größte Komponente
+     * oder die Wurzel der Summe der Flächen aller Rechtecke. Da sich die Rechtecke nicht überschneiden, überlappen sich
+     * danach keine Länder verschiedener Komponenten mehr.
+     *
+     * @param modell      Modell mit den Koordinaten aller Komponenten
+     * @param reihenfolge Komponenten nach ihrer Größe, die größte zuerst
+     * @param abstand     Abstand zwischen zwei Rechtecken, größer als 0
+     */
+    private void reihe(Modell modell, Integer[] reihenfolge, double abstand) {
+        double[] minX = new double[this.anzahl];
+        double[] minY = new double[this.anzahl];
+        double[] maxX = new double[this.anzahl];
+        double[] maxY = new double[this.anzahl];
+        Arrays.fill(minX, Double.MAX_VALUE);
+        Arrays.fill(minY, Double.MAX_VALUE);
+        Arrays.fill(maxX, -Double.MAX_VALUE);
+        Arrays.fill(maxY, -Double.MAX_VALUE);
+        for (int i = 0; i < modell.anzahl; i++) {
+            int k = this.komponente[i];
+            minX[k] = Double.min(minX[k], modell.x[i] - modell.radius[i]);
+            minY[k] = Double.min(minY[k], modell.y[i] - modell.radius[i]);
+            maxX[k] = Double.max(maxX[k], modell.x[i] + modell.radius[i]);
+            maxY[k] = Double.max(maxY[k], modell.y[i] + modell.radius[i]);
+        }
+        double flaeche = 0;
+        for (int k = 0; k < this.anzahl; k++) {
+            flaeche += (maxX[k] - minX[k] + abstand) * (maxY[k] - minY[k] + abstand);
+        }
+        int groesste = reihenfolge[0];
+        double breite = Double.max(maxX[groesste] - minX[groesste], Math.sqrt(flaeche));
+        //Verschiebung jeder Komponente, die die linke untere Ecke ihres Rechtecks an ihre Stelle in der Reihe bringt
+        double[] verschiebungX = new double[this.anzahl];
+        double[] verschiebungY = new double[this.anzahl];
+        double x = 0;
+        double y = 0;
+        double hoehe = 0;
+        for (Integer k : reihenfolge) {
+            double w = maxX[k] - minX[k];
+            if (x > 0 && x + w > breite) {
+                x = 0;
+                y += hoehe + abstand;
+                hoehe = 0;
+            }
+            verschiebungX[k] = minX[groesste] + x - minX[k];
+            verschiebungY[k] = minY[groesste] + y - minY[k];
+            x += w + abstand;
+            hoehe = Double.max(hoehe, maxY[k] - minY[k]);
+        }
+        for (int i = 0; i < modell.anzahl; i++) {
+            int k = this.komponente[i];
+            modell.x[i] += verschiebungX[k];
+            modell.y[i] += verschiebungY[k];
+        }
+    }
+}
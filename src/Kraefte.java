@@ -0,0 +1,122 @@
+import java.util.Arrays;
+
+/**
+ * Dünn besetzte Speicherung der Kräfte, die zwischen den Ländern wirken. Ersetzt die vollständige Matrix der Kräfte.
+ * Für jedes Land werden nur die Partner gespeichert, für die eine Kraft ungleich 0 existiert,
+ * also die Nachbarn und alle Länder, mit denen sich das Land schon einmal überlappt hat.
+ * Der Speicherbedarf wächst damit mit der Anzahl der Länder, Nachbarschaften und Überlappungen statt quadratisch.
+ * <p>
+ * Die Partner jedes Landes sind aufsteigend sortiert, damit die Kräfte in derselben Reihenfolge angewendet werden wie bei der Matrix.
+ *
+ * @author ehamada
+ */
+public class Kraefte {
+    /**
+     * Attribute:
+     *
+     * @partner Indizes der Partner jedes Landes, aufsteigend sortiert
+     * @kraft Kraft zu jedem Partner, gleiche Position wie in partner
+     * @anzahl Anzahl der belegten Einträge in partner und kraft
+     */
+    private final int[][] partner;
+    private final double[][] kraft;
+    private final int[] anzahl;
+
+    /**
+     * Konstruktor der Klasse, legt für jedes Land seine Nachbarn als Partner mit der Kraft 0 an
+     *
+     * @param modell Modell mit den aufsteigend sortierten Nachbarn jedes Landes
+     */
+    public Kraefte(Modell modell) {
+        this.partner = new int[modell.anzahl][];
+        this.kraft = new double[modell.anzahl][];
+        this.anzahl = new int[modell.anzahl];
+        for (int i = 0; i < modell.anzahl; i++) {
+            int start = modell.nachbarStart[i];
+            int ende = modell.nachbarStart[i + 1];
+            this.partner[i] = Arrays.copyOfRange(modell.nachbarIndex, start, ende + 2);    //Etwas Platz für Überlappungen
+            this.kraft[i] = new double[this.partner[i].length];
+            this.anzahl[i] = ende - start;
+        }
+    }
+
+    /**
+     * Methode zum Setzen der Kraft, die von Land j auf Land i wirkt. Ist j noch kein Partner von i, wird er einsortiert.
+     *
+     * @param i     Index des Landes, auf das die Kraft wirkt
+     * @param j     Index des Landes, von dem die Kraft ausgeht
+     * @param kraft Wert der Kraft
+     */
+    public void setze(int i, int j, double kraft) {
+        int k = Arrays.binarySearch(this.partner[i], 0, this.anzahl[i], j);
+        if (k < 0) {
+            k = -k - 1; //Position, an der j einsortiert werden muss
+            if (this.anzahl[i] == this.partner[i].length) {
+                int laenge = this.partner[i].length * 2 + 2;
+                this.partner[i] = Arrays.copyOf(this.partner[i], laenge);
+                this.kraft[i] = Arrays.copyOf(this.kraft[i], laenge);
+            }
+            System.arraycopy(this.partner[i], k, this.partner[i], k + 1, this.anzahl[i] - k);
+            System.arraycopy(this.kraft[i], k, this.kraft[i], k + 1, this.anzahl[i] - k);
+            this.partner[i][k] = j;
+            this.anzahl[i]++;
+        }
+        this.kraft[i][k] = kraft;
+    }
+
+    /**
+     * @param i Index des Landes
+     * @return Returns Anzahl der Partner des Landes
+     */
+    public int anzahl(int i) {
+        return this.anzahl[i];
+    }
+
+    /**
+     * @param i Index des Landes
+     * @param k Position des Partners
+     * @return Returns Index des k-ten Partners des Landes
+     */
+    public int partner(int i, int k) {
+        return this.partner[i][k];
+    }
+
+    /**
+     * @param i Index des Landes
+     * @param k Position des Partners
+     * @return Returns Kraft, die vom k-ten Partner auf das Land wirkt
+     */
+    public double kraft(int i, int k) {
+        return this.kraft[i][k];
+    }
+
+    /**
+     * @param i Index des Landes
+     * @return Returns Array mit den Partnern des Landes, nur die ersten anzahl(i) Einträge sind belegt. Darf nicht verändert werden
+     */
+    int[] partnerListe(int i) {
+        return this.partner[i];
+    }
+
+    /**
+     * @param i Index des Landes
+     * @return Returns Array mit den Kräften der Partner des Landes, nur die ersten anzahl(i) Einträge sind belegt. Darf nicht verändert werden
+     */
+    double[] kraftListe(int i) {
+        return this.kraft[i];
+    }
+
+    /**
+     * Methode zum Ersetzen aller Partner und Kräfte eines Landes, z.B. beim Fortsetzen aus einer {@link Sicherung}
+     *
+     * @param i       Index des Landes
+     * @param partner Aufsteigend sortierte Partner, wird übernommen
+     * @param kraft   Kraft zu jedem Partner, wird übernommen
+     * @param anzahl  Anzahl der belegten Einträge
+     */
+    void ersetze(int i, int[] partner, double[] kraft, int anzahl) {
+        this.partner[i] = partner;
+        this.kraft[i] = kraft;
+        this.anzahl[i] = anzahl;
+    }
+}
@@ -1,7 +1,17 @@
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.InvalidPropertiesFormatException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Hauptklasse, die die anderen Klassen aufruft.
@@ -15,20 +25,253 @@ public class Main {
 
     /**
      * Main Methode, wird beim Ausführen des Programms aufgerufen und ruft dann die Klassen Einlesen, Algorithmus und Ausgabe der Reihe nach auf.
+     * Ist Pfad + Dateiname ein Ordner oder enthält der Dateiname ein Muster (* oder ?), werden alle passenden Dateien
+     * (außer .out und .sicherung Dateien) in einer JVM parallel verarbeitet, z.B. <code>java Main "*" Beispiele/</code>.
      *
-     * @param args Dateiname und Pfad der input Datei
+     * @param args Dateiname und Pfad der input Datei, optional gefolgt von Optionen: <br>
+     *             --parallel[=threads] Kräfte parallel berechnen, ohne Angabe mit einem Thread pro Prozessor <br>
+     *             --strategie=name Verfahren für die Schrittweite (fest, adaptiv, momentum, abkuehlung) <br>
+     *             --start=datei Warmstart mit den Koordinaten aus einer vorherigen Ausgabedatei (Pfad + Dateiname) <br>
+     *             --warmstart Warmstart mit der vorhandenen Ausgabedatei der Eingabedatei, falls sie ein Ergebnis enthält <br>
+     *             --statistik[=n] Messwerte jeder n-ten Iteration und eine Zusammenfassung ausgeben, ohne Angabe nur die Zusammenfassung, im Batchbetrieb mit dem Namen der Datei vor jeder Zeile <br>
+     *             --jfr Messwerte als Events an den Java Flight Recorder übergeben (Aufnahme muss mit -XX:StartFlightRecording gestartet werden) <br>
+     *             --komponenten Zusammenhangskomponenten des Nachbarschaftsgraphen einzeln und gleichzeitig berechnen und danach packen <br>
+     *             --mehrstufig Mehrstufiges Verfahren: Länder zu gröberen Knoten zusammenfassen, grob berechnen und Stufe für Stufe verfeinern <br>
+     *             --einfrieren Länder, die sich nicht mehr bewegen, einfrieren, bis sich in ihrer Umgebung wieder etwas bewegt oder ein Land sie überlappt
+     *             (nur sequentiell mit fest, siehe {@link AktiveMenge}). Lohnt sich nur, wenn viele Länder lange ruhig sind, bei den Beispielen
+     *             ist kein Gewinn messbar, das Ergebnis weicht leicht vom normalen sequentiellen Modus ab <br>
+     *             --simd Vektorkern (Vector API) nutzen, muss mit src-vector übersetzt und mit --add-modules jdk.incubator.vector gestartet werden <br>
+     *             --budget=ms Zeitbudget in Millisekunden, danach wird das beste bisher gefundene Layout ausgegeben <br>
+     *             --stdout Ergebnis statt in die .out Datei auf die Standardausgabe schreiben, z.B. für <code>java Main Beispiel1 Beispiele/ --stdout | gnuplot -p</code>.
+     *             Alle anderen Meldungen gehen dann auf die Standardfehlerausgabe <br>
+     *             --kette Bei mehreren Kennwerten in einer Datei (erste Zeile beginnt mit "Kennwerte:") startet jeder Kennwert mit dem Ergebnis des vorherigen,
+     *             sonst werden alle gleichzeitig berechnet (siehe {@link Kennwerte}). Jeder Kennwert k wird in datei.k.out geschrieben <br>
+     *             --pruefen Nach dem Hauptalgorithmus Überlappungen, Lücken zwischen Nachbarn und Verschiebungen prüfen und ausgeben
+     *             (siehe {@link Pruefung}) <br>
+     *             --sicherung[=n] Zustand des Iterationsverfahrens alle n Iterationen in datei.sicherung sichern, ohne n so oft,
+     *             dass das Schreiben höchstens etwa 1 % der Rechenzeit kostet (siehe {@link Sicherung}), nicht mit --komponenten, --mehrstufig, --einfrieren, --budget und nicht bei mehreren Kennwerten (ExitCode 1) <br>
+     *             --resume Berechnung aus datei.sicherung fortsetzen, falls vorhanden, und weiter sichern.
+     *             Passt die Sicherung nicht zur Eingabe (auch andere Koordinaten oder ein anderes --warmstart) oder zu den Optionen, wird mit ExitCode 1 abgebrochen und sie bleibt erhalten <br>
+     *             --jobs=n Anzahl der Dateien, die im Batchbetrieb gleichzeitig verarbeitet werden, Default ein Job pro Prozessor <br>
+     *             --dienst[=port] Statt einer Datei einen lokalen HTTP Dienst starten (siehe {@link Dienst}), Default Port 8080 <br>
+     *             --speicher=mb Größe des Speichers für die Ergebnisse des Dienstes in MB, Default 64, mit --budget werden keine Ergebnisse gespeichert
      */
     public static void main(String args[]) {
-        boolean fehler = false; //Boolean, wird true, wenn ein Fehler aufgetreten ist
-        Einlesen einlesen = new Einlesen(); //Instanziere andere Klassen
         Algorithmus algorithmus = new Algorithmus();
-        Ausgabe ausgabe = new Ausgabe();
         String datei = "Beispiel1";
         String pfad = "Beispiele/";   //Defaultpfad ist src/ kann als übergabeparameter angegeben werden
-        switch (args.length) {
-            case 2: pfad = args[1];
-            case 1: datei = args[0];
+        int jobs = Runtime.getRuntime().availableProcessors();
+        String start = null;    //Datei für den Warmstart, "" für die vorhandene Ausgabedatei jeder Eingabedatei
+        boolean stdout = false;
+        boolean kette = false;
+        boolean pruefen = false;
+        int sicherung = -1;  //Intervall der Sicherung, Sicherung.AUTOMATISCH nach der Dauer des Schreibens, -1 ohne Sicherung
+        boolean fortsetzen = false;
+        boolean sicherbar = true;   //false mit Optionen, die mehrere Iterationsverfahren nacheinander oder mit eigenem Zustand rechnen
+        int port = -1;  //Port des Dienstes, -1 ohne Dienst
+        long speicher = 64;
+        ArrayList<String> parameter = new ArrayList<>();    //Parameter ohne die Optionen
+        try {
+            for (String arg : args) {
+                if (arg.equals("--parallel")) {
+                    algorithmus.setParallel(Runtime.getRuntime().availableProcessors());
+                } else if (arg.startsWith("--parallel=")) {
+                    algorithmus.setParallel(Integer.parseInt(arg.substring("--parallel=".length())));
+                } else if (arg.startsWith("--strategie=")) {
+                    algorithmus.setStrategie(Strategie.valueOf(arg.substring("--strategie=".length()).toUpperCase()));
+                } else if (arg.startsWith("--start=")) {
+                    start = arg.substring("--start=".length());
+                } else if (arg.equals("--warmstart")) {
+                    start = "";
+                } else if (arg.equals("--statistik")) {
+                    algorithmus.setListener(new Statistik(0));
+                } else if (arg.startsWith("--statistik=")) {
+                    algorithmus.setListener(new Statistik(Integer.parseInt(arg.substring("--statistik=".length()))));
+                } else if (arg.equals("--jfr")) {
+                    algorithmus.setListener(new JfrListener());
+                } else if (arg.equals("--komponenten")) {
+                    algorithmus.setKomponenten(true);
+                    sicherbar = false;
+                } else if (arg.equals("--mehrstufig")) {
+                    algorithmus.setMehrstufig(true);
+                    sicherbar = false;
+                } else if (arg.equals("--einfrieren")) {
+                    algorithmus.setEinfrieren(true);
+                    sicherbar = false;
+                } else if (arg.equals("--simd")) {
+                    Kern kern = Kern.vektor();
+                    if (kern == null) {
+                        System.err.println("Vektorkern nicht verfügbar, rechne skalar");
+                    }
+                    algorithmus.setKern(kern);
+                } else if (arg.startsWith("--budget=")) {
+                    algorithmus.setZeitbudget(Long.parseLong(arg.substring("--budget=".length())));
+                    sicherbar = false;
+                } else if (arg.equals("--sicherung")) {
+                    sicherung = Sicherung.AUTOMATISCH;
+                } else if (arg.startsWith("--sicherung=")) {
+                    sicherung = Integer.parseInt(arg.substring("--sicherung=".length()));
+                    if (sicherung < 1) {
+                        throw new IllegalArgumentException("Das Intervall der Sicherung muss mindestens 1 sein");
+                    }
+                } else if (arg.equals("--resume")) {
+                    fortsetzen = true;
+                } else if (arg.equals("--pruefen")) {
+                    pruefen = true;
+                } else if (arg.equals("--kette")) {
+                    kette = true;
+                } else if (arg.equals("--stdout")) {
+                    stdout = true;
+                } else if (arg.equals("--dienst")) {
+                    port = 8080;
+                } else if (arg.startsWith("--dienst=")) {
+                    port = Integer.parseInt(arg.substring("--dienst=".length()));
+                } else if (arg.startsWith("--speicher=")) {
+                    speicher = Long.parseLong(arg.substring("--speicher=".length()));
+                    if (speicher < 0) {
+                        throw new IllegalArgumentException("Speicher kann nicht negativ sein");
+                    }
+                } else if (arg.startsWith("--jobs=")) {
+                    jobs = Integer.parseInt(arg.substring("--jobs=".length()));
+                    if (jobs < 1) {
+                        throw new IllegalArgumentException("Es muss mindestens ein Job laufen");
+                    }
+                } else {
+                    parameter.add(arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {  //Ungültige Anzahl oder Strategie, NumberFormatException ist ebenfalls eine IllegalArgumentException
+            System.out.println("Ungültige Option: " + e.getMessage());
+            System.exit(1);
+        }
+        if (port >= 0) {
+            try {
+                port = new Dienst(algorithmus, speicher << 20).starte(port);
+                System.out.println("Dienst läuft auf http://localhost:" + port + "/layout");
+            } catch (IOException e) {
+                System.out.println("Dienst konnte nicht gestartet werden: " + e.getMessage());
+                System.exit(1);
+            }
+            return;     //Die Threads des Dienstes laufen weiter
+        }
+        if (algorithmus.einfrierenOhneWirkung()) {     //Die Option wird nicht abgewiesen, da das Ergebnis dasselbe ist
+            System.out.println("Hinweis: --einfrieren wirkt nur sequentiell mit --strategie=fest und wird ignoriert");
+        }
+        if (fortsetzen && sicherung < 0) {
+            sicherung = Sicherung.AUTOMATISCH;
+        }
+        if (sicherung >= 0 && !sicherbar) {
+            System.out.println("Ungültige Option: Sicherung ist nur ohne --komponenten, --mehrstufig, --einfrieren und --budget möglich");
+            System.exit(1);
+        }
+        switch (parameter.size()) {
+            case 2: pfad = parameter.get(1);
+            case 1: datei = parameter.get(0);
+        }
+
+        int exitCode;
+        boolean batch = new File(pfad + datei).isDirectory() || datei.contains("*") || datei.contains("?");
+        if (batch && stdout) {
+            System.out.println("Ungültige Option: --stdout ist im Batchbetrieb nicht möglich");
+            System.exit(1);
         }
+        if (batch) {
+            exitCode = verarbeiteAlle(datei, pfad, algorithmus, start, kette, pruefen, sicherung, fortsetzen, jobs);
+        } else if (stdout) {
+            //Die Standardausgabe gehört dem Ergebnis, Meldungen (z.B. Anzahl der Iterationen) gehen auf die Standardfehlerausgabe
+            PrintStream ziel = System.out;
+            System.setOut(System.err);
+            exitCode = verarbeite(datei, pfad, algorithmus, start, kette, pruefen, sicherung, fortsetzen, ziel);
+        } else {
+            exitCode = verarbeite(datei, pfad, algorithmus, start, kette, pruefen, sicherung, fortsetzen, null);
+        }
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    /**
+     * Methode für den Batchbetrieb. Sucht alle passenden Dateien und verarbeitet sie gleichzeitig mit höchstens jobs Threads.
+     * Jede Datei wird wie beim einzelnen Aufruf verarbeitet, Fehler werden also in ihre eigene .out Datei geschrieben.
+     * Am Ende wird für jede Datei der ExitCode ausgegeben.
+     *
+     * @param datei       Ordner (relativ zum Pfad) oder Muster für die Dateinamen
+     * @param pfad        Pfad, in dem gesucht wird
+     * @param algorithmus Algorithmus mit den Einstellungen für alle Dateien, jede Datei wird mit einer Kopie berechnet
+     * @param start       Datei für den Warmstart, "" für die vorhandene Ausgabedatei jeder Eingabedatei, null ohne Warmstart
+     * @param kette       true, wenn mehrere Kennwerte einer Datei als Kette berechnet werden
+     * @param pruefen     true, wenn jedes Layout geprüft wird
+     * @param sicherung   Intervall der Sicherung jeder Datei, Sicherung.AUTOMATISCH nach der Dauer des Schreibens, -1 ohne Sicherung
+     * @param fortsetzen  true, wenn jede Datei aus ihrer Sicherung fortgesetzt wird
+     * @param jobs        Anzahl der Dateien, die gleichzeitig verarbeitet werden
+     * @return Returns -1, falls bei einer Datei ein unerwarteter Fehler aufgetreten ist, 1 bei einem erwarteten Fehler, sonst 0
+     */
+    private static int verarbeiteAlle(String datei, String pfad, Algorithmus algorithmus, String start, boolean kette, boolean pruefen,
+                                      int sicherung, boolean fortsetzen, int jobs) {
+        File ordner;
+        PathMatcher muster;
+        File ziel = new File(pfad + datei);
+        if (ziel.isDirectory()) {
+            ordner = ziel;
+            muster = FileSystems.getDefault().getPathMatcher("glob:*");
+        } else {
+            ordner = ziel.getParentFile() != null ? ziel.getParentFile() : new File(".");
+            muster = FileSystems.getDefault().getPathMatcher("glob:" + ziel.getName());
+        }
+        File[] dateien = ordner.listFiles(f -> f.isFile() && !f.getName().endsWith(".out") && !f.getName().endsWith(".sicherung") && muster.matches(Paths.get(f.getName())));
+        if (dateien == null || dateien.length == 0) {
+            System.out.println("Keine Eingabedateien gefunden in " + ordner.getPath());
+            return 1;
+        }
+        Arrays.sort(dateien);
+        String ordnerPfad = ordner.getPath() + File.separator;
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(jobs, dateien.length));
+        ArrayList<Future<Integer>> ergebnisse = new ArrayList<>();
+        for (File f : dateien) {
+            //Eigene Kopie pro Datei, damit z.B. die Ausgaben von --statistik der Datei zugeordnet werden können
+            Algorithmus kopie = algorithmus.kopie(f.getName());
+            ergebnisse.add(executor.submit(() -> verarbeite(f.getName(), ordnerPfad, kopie, start, kette, pruefen, sicherung, fortsetzen, null)));
+        }
+        executor.shutdown();
+
+        int exitCode = 0;
+        for (int i = 0; i < dateien.length; i++) {
+            int code;
+            try {
+                code = ergebnisse.get(i).get();
+            } catch (InterruptedException | ExecutionException e) {    //Fehler, die nicht in verarbeite behandelt wurden
+                System.out.println("Unerwarteter Fehler ist aufgetreten bei " + dateien[i].getName() + ": " + e.getMessage());
+                code = -1;
+            }
+            System.out.println(dateien[i].getName() + ": " + code);
+            if (code < 0 || (code > 0 && exitCode == 0)) {
+                exitCode = code;
+            }
+        }
+        return exitCode;
+    }
+
+    /**
+     * Methode zum Verarbeiten einer Datei: Einlesen, Hauptalgorithmus und Ausgabe.
+     * Tritt beim Einlesen ein Fehler auf, wird er in die Ausgabedatei geschrieben.
+     *
+     * @param datei       Dateiname der input Datei
+     * @param pfad        Pfad der input Datei, die Ausgabedatei wird im selben Pfad erstellt
+     * @param algorithmus Algorithmus, mit dem die Koordinaten berechnet werden
+     * @param start       Datei für den Warmstart, "" für die vorhandene Ausgabedatei, null ohne Warmstart
+     * @param kette       true, wenn mehrere Kennwerte als Kette berechnet werden, false, wenn gleichzeitig
+     * @param pruefen     true, wenn das Layout nach dem Hauptalgorithmus geprüft wird
+     * @param sicherung   Intervall der Sicherung in datei.sicherung, Sicherung.AUTOMATISCH nach der Dauer des Schreibens, -1 ohne Sicherung
+     * @param fortsetzen  true, wenn aus einer vorhandenen Sicherung fortgesetzt wird
+     * @param ziel        Stream, in den das Ergebnis oder der Fehler statt in die Ausgabedatei geschrieben wird, null für die Ausgabedatei
+     * @return Returns ExitCode: 0 heißt Programm war Erfolgreich, >0 heißt erwarteter Fehler und <0 heißt unerwarteter Fehler
+     */
+    private static int verarbeite(String datei, String pfad, Algorithmus algorithmus, String start, boolean kette, boolean pruefen,
+                                  int sicherung, boolean fortsetzen, OutputStream ziel) {
+        boolean fehler = false; //Boolean, wird true, wenn ein Fehler aufgetreten ist
+        Einlesen einlesen = new Einlesen(); //Instanziere andere Klassen
+        Ausgabe ausgabe = new Ausgabe();
         String outputDatei = datei + ".out"; //Outputdatei ist per default inputname.out, kann als übergabeparameter angegeben werden
 
         ArrayList<Land> laender = new ArrayList<>();
@@ -57,31 +300,137 @@ public class Main {
         }
         if (fehler) {
             try {
-                ausgabe.ausgabeFehler(text, errorMessage, outputDatei, pfad);
-                System.exit(exitCode);
+                if (ziel != null) {
+                    ausgabe.ausgabeFehler(text, errorMessage, ziel);
+                } else {
+                    ausgabe.ausgabeFehler(text, errorMessage, outputDatei, pfad);
+                }
+                return exitCode;
             } catch (Exception ex) {
                 text = "Fehler beim Schreiben in Ausgabedatei, überprüfe ob Programm Dateien erstellen darf. Fehlermeldung: ";
                 System.out.println(text + ex.getMessage());
-                System.exit(1);
+                return 1;
             }
         }
+        String[] namen = einlesen.getNamen();
+        if (namen.length > 1) {     //Mehrere Kennwerte, der Warmstart nutzt die Ausgabedatei des ersten
+            outputDatei = datei + ".1.out";
+        }
+        //Lese vorheriges Ergebnis für den Warmstart. Ist es nicht lesbar, wird normal gestartet
+        Startlayout startlayout = null;
+        if (start != null) {
+            try {
+                startlayout = start.isEmpty() ? Startlayout.leseDatei(outputDatei, pfad) : Startlayout.leseDatei(start, "");
+            } catch (Exception e) {
+                if (!start.isEmpty()) {   //Beim automatischen Warmstart fehlt die Ausgabedatei oft, das ist kein Fehler
+                    System.out.println("Startlayout konnte nicht gelesen werden, starte ohne Warmstart: " + e.getMessage());
+                }
+            }
+        }
+        if (namen.length > 1) {
+            if (sicherung >= 0) {    //Wie bei --komponenten usw. abweisen, statt die Sicherung stillschweigend wegzulassen
+                System.out.println("Ungültige Option: Sicherung ist bei mehreren Kennwerten nicht möglich (" + datei + ")");
+                return 1;
+            }
+            return verarbeiteKennwerte(datei, pfad, algorithmus, startlayout, kette, pruefen, ziel, laender, einlesen);
+        }
+        double[][] lage = pruefen ? Pruefung.lage(laender) : null;
         //Rufe Hauptalgorithmus auf, erhalte Anzahl der Iterationen, die benötigt wurden
-        int iterationen = algorithmus.calculate(laender);
+        Ergebnis ergebnis;
+        try {
+            if (sicherung >= 0) {
+                Sicherung zustand = new Sicherung(pfad + datei + ".sicherung", sicherung, fortsetzen);
+                ergebnis = algorithmus.berechne(laender, startlayout, algorithmus.zeitbudget(), zustand);
+            } else {
+                ergebnis = algorithmus.berechne(laender, startlayout, algorithmus.zeitbudget());
+            }
+        } catch (Sicherungsfehler e) {     //Sicherung passt bei --resume nicht, sie bleibt erhalten
+            System.out.println(e.getMessage());
+            return 1;
+        } catch (RuntimeException e) {  //z.B. Fehler oder Unterbrechung bei der Berechnung einer Komponente
+            System.out.println("Unerwarteter Fehler ist aufgetreten bei der Berechnung: " + e.getMessage());
+            return -1;    //unerwarteter Fehler
+        }
+        int iterationen = ergebnis.iterationen;
+        if (ergebnis.qualitaet != null) {   //Nur mit Zeitbudget
+            System.out.println(datei + ": " + ergebnis.qualitaet + ", Abbruch: " + ergebnis.abbruch);
+        }
+        if (pruefen) {
+            System.out.println(datei + ": " + Pruefung.pruefe(laender, lage));
+        }
 
         //Gebe Ergebnisse aus
         try {
-            File f = ausgabe.ausgabe(laender, outputDatei, pfad, iterationen, einlesen.getName());
+            if (ziel != null) {
+                ausgabe.ausgabe(laender, ziel, iterationen, einlesen.getName());
+            } else {
+                ausgabe.ausgabe(laender, outputDatei, pfad, iterationen, einlesen.getName());
+            }
         } catch (IOException io) { //Falls Fehler in Ausgabedatei entsteht, gebe es in der Kommandozeile aus
             text = "Fehler beim Schreiben in Ausgabedatei, überprüfe ob Programm Dateien erstellen darf";
             System.out.println(text + io.getMessage());
-            System.exit(1);
+            return 1;
         } catch (Exception e) {
             text = "Unerwarteter Fehler ist aufgetreten beim Ausgeben der Datei: ";
             errorMessage = e.getMessage();
             System.out.println(text + errorMessage);
-            System.exit(-1);    //unerwarteter Fehler
+            return -1;    //unerwarteter Fehler
 
         }
+        return 0;
+    }
+
+    /**
+     * Methode zum Berechnen und Ausgeben einer Datei mit mehreren Kennwerten. Die Länder wurden bereits einmal eingelesen,
+     * jeder Kennwert k wird in datei.k.out geschrieben (k ab 1), bzw. alle nacheinander in ziel.
+     *
+     * @param datei       Dateiname der input Datei
+     * @param pfad        Pfad der input Datei, die Ausgabedateien werden im selben Pfad erstellt
+     * @param algorithmus Algorithmus, mit dem die Koordinaten berechnet werden
+     * @param startlayout Startlayout für den ersten Kennwert (in der Kette) bzw. alle Kennwerte, null ohne Warmstart
+     * @param kette       true, wenn jeder Kennwert mit dem Ergebnis des vorherigen startet
+     * @param pruefen     true, wenn jedes Layout nach dem Hauptalgorithmus geprüft wird
+     * @param ziel        Stream, in den die Ergebnisse statt in die Ausgabedateien geschrieben werden, null für die Ausgabedateien
+     * @param laender     Eingelesene Länder
+     * @param einlesen    Einlesen mit den Namen und Radien der Kennwerte
+     * @return Returns ExitCode wie bei verarbeite
+     */
+    private static int verarbeiteKennwerte(String datei, String pfad, Algorithmus algorithmus, Startlayout startlayout, boolean kette,
+                                           boolean pruefen, OutputStream ziel, ArrayList<Land> laender, Einlesen einlesen) {
+        String[] namen = einlesen.getNamen();
+        Kennwerte kennwerte = new Kennwerte(laender, einlesen.getRadien());
+        Ergebnis[] ergebnisse;
+        try {
+            ergebnisse = kennwerte.berechne(algorithmus, startlayout, kette, Runtime.getRuntime().availableProcessors());
+        } catch (InterruptedException | ExecutionException e) {
+            System.out.println("Unerwarteter Fehler ist aufgetreten beim Berechnen der Kennwerte: " + e.getMessage());
+            return -1;
+        }
+        Ausgabe ausgabe = new Ausgabe();
+        for (int k = 0; k < namen.length; k++) {
+            if (ergebnisse[k].qualitaet != null) {   //Nur mit Zeitbudget
+                System.out.println(datei + " " + namen[k] + ": " + ergebnisse[k].qualitaet + ", Abbruch: " + ergebnisse[k].abbruch);
+            }
+            if (pruefen) {      //Die eingelesenen Länder werden nicht verändert und haben noch ihre geographische Lage
+                System.out.println(datei + " " + namen[k] + ": " + Pruefung.pruefe(kennwerte.laender(k), Pruefung.lage(laender)));
+            }
+            try {
+                if (ziel != null) {
+                    ausgabe.ausgabe(kennwerte.laender(k), ziel, ergebnisse[k].iterationen, namen[k]);
+                    ziel.write('\n');
+                    ziel.flush();
+                } else {
+                    ausgabe.ausgabe(kennwerte.laender(k), datei + "." + (k + 1) + ".out", pfad, ergebnisse[k].iterationen, namen[k]);
+                }
+            } catch (IOException io) {
+                System.out.println("Fehler beim Schreiben in Ausgabedatei, überprüfe ob Programm Dateien erstellen darf" + io.getMessage());
+                return 1;
+            } catch (Exception e) {
+                System.out.println("Unerwarteter Fehler ist aufgetreten beim Ausgeben der Datei: " + e.getMessage());
+                return -1;
+            }
+        }
+        return 0;
     }
 
 }
@@ -0,0 +1,207 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Mehrstufiges Verfahren (Vergröbern und Verfeinern) für große Nachbarschaftsgraphen.
+ * Da die Anziehung nur entlang der Nachbarschaften wirkt, braucht das normale Iterationsverfahren bei vielen Ländern
+ * sehr viele Iterationen, bis sich eine Verschiebung über den ganzen Graphen ausgebreitet hat.
+ * <p>
+ * Deshalb werden zuerst benachbarte Länder paarweise zu gröberen Knoten zusammengefasst, bis nur noch wenige Knoten übrig sind
+ * oder sich die Anzahl kaum noch verringert. Ein gröberer Knoten liegt im flächengewichteten Schwerpunkt seiner Länder
+ * und hat deren gemeinsame Fläche, also den Radius sqrt(r1² + r2²).
+ * Die gröbste Stufe wird mit dem normalen Iterationsverfahren berechnet. Danach wird jede feinere Stufe aus der gröberen übernommen:
+ * jedes Land startet an der neuen Position seines gröberen Knotens, verschoben um seine ursprüngliche Lage relativ zu diesem Knoten,
+ * und wird dann wieder mit dem normalen Iterationsverfahren verfeinert. Auf den feineren Stufen sind so nur noch lokale Korrekturen nötig.
+ *
+ * @author ehamada
+ */
+public class Mehrstufig {
+    /**
+     * Attribute:
+     *
+     * @stufen Modelle aller Stufen, stufen.get(0) ist das Modell der Länder, die letzte Stufe ist die gröbste
+     * @grob Für jede Stufe außer der gröbsten: Index des gröberen Knotens jedes Knotens in der nächsten Stufe
+     * @versatzX Für jede Stufe außer der gröbsten: x Abstand jedes Knotens zu seinem gröberen Knoten beim Vergröbern
+     * @versatzY Für jede Stufe außer der gröbsten: y Abstand jedes Knotens zu seinem gröberen Knoten beim Vergröbern
+     * @MIN_KNOTEN Anzahl an Knoten, ab der nicht weiter vergröbert wird
+     * @MIN_REDUKTION Anteil der Knoten, der in einer Stufe mindestens zusammengefasst werden muss, sonst wird nicht weiter vergröbert
+     * @GROB_ANTEIL Jede gröbere Stufe darf höchstens maxIterationen / GROB_ANTEIL Iterationen brauchen
+     */
+    private final ArrayList<Modell> stufen = new ArrayList<>();
+    private final ArrayList<int[]> grob = new ArrayList<>();
+    private final ArrayList<double[]> versatzX = new ArrayList<>();
+    private final ArrayList<double[]> versatzY = new ArrayList<>();
+    private static final int MIN_KNOTEN = 32;
+    private static final double MIN_REDUKTION = 0.1;
+    private static final int GROB_ANTEIL = 10;
+
+    /**
+     * Konstruktor der Klasse, baut alle Stufen auf. Das Modell muss bereits voriteriert sein.
+     *
+     * @param modell Modell der Länder nach der Voriteration
+     */
+    public Mehrstufig(Modell modell) {
+        this.stufen.add(modell);
+        Modell aktuell = modell;
+        while (aktuell.anzahl > MIN_KNOTEN) {
+            Modell naechste = vergroebere(aktuell);
+            if (naechste.anzahl > aktuell.anzahl * (1 - MIN_REDUKTION)) {
+                //Kaum noch Paare gefunden (z.B. Länder ohne Nachbarn), die letzte Stufe wird verworfen
+                this.grob.remove(this.grob.size() - 1);
+                this.versatzX.remove(this.versatzX.size() - 1);
+                this.versatzY.remove(this.versatzY.size() - 1);
+                break;
+            }
+            this.stufen.add(naechste);
+            aktuell = naechste;
+        }
+    }
+
+    /**
+     * @return Returns Anzahl der Stufen, 1 wenn nicht vergröbert wurde
+     */
+    public int anzahlStufen() {
+        return this.stufen.size();
+    }
+
+    /**
+     * Methode zum Berechnen aller Stufen von der gröbsten zur feinsten. Jede Stufe wird mit dem Iterationsverfahren
+     * des übergebenen Algorithmus berechnet, der Listener bekommt nur die Iterationen der feinsten Stufe.
+     * Die maximale Anzahl an Iterationen gilt für alle Stufen zusammen, die feinste Stufe bekommt, was die gröberen übrig lassen.
+     *
+     * @param algorithmus    Algorithmus mit den Einstellungen für das Iterationsverfahren
+     * @param listener       Listener für die feinste Stufe, null wenn nichts gemessen werden soll
+     * @param maxIterationen Maximale Anzahl an Iterationen aller Stufen zusammen
+     * @param budget         Zeitbudget für alle Stufen zusammen, null ohne Zeitbudget
+     * @param pool           Pool für den parallelen Modus, den alle Stufen nutzen, null im sequentiellen Modus
+     * @return Returns Ergebnis mit der Summe der Iterationen aller Stufen und epsilon der letzten Iteration der feinsten Stufe
+     */
+    public Ergebnis iteriere(Algorithmus algorithmus, IterationsListener listener, int maxIterationen, Zeitbudget budget, ForkJoinPool pool) {
+        int iterationen = 0;
+        Ergebnis ergebnis = null;
+        for (int s = this.stufen.size() - 1; s >= 0; s--) {
+            Modell stufe = this.stufen.get(s);
+            if (s < this.stufen.size() - 1) {
+                uebernehme(stufe, this.stufen.get(s + 1), this.grob.get(s), this.versatzX.get(s), this.versatzY.get(s));
+            }
+            //Gröbere Stufen sind nur der Start der feineren, dort reicht ein Teil der Iterationen.
+            // Jede Stufe rechnet mindestens eine Iteration, damit die feinste Stufe immer berechnet wird
+            int rest = Math.max(1, maxIterationen - iterationen);
+            int max = s == 0 ? rest : Math.min(rest, Math.max(1, maxIterationen / GROB_ANTEIL));
+            ergebnis = algorithmus.iteriere(stufe, s == 0 ? listener : null, max, budget, null, pool);
+            iterationen += ergebnis.iterationen;
+        }
+        return new Ergebnis(iterationen, ergebnis.epsilon, ergebnis.strategie, ergebnis.abbruch, ergebnis.qualitaet);
+    }
+
+    /**
+     * Methode zum Erstellen der nächst gröberen Stufe. Jeder noch nicht zusammengefasste Knoten wird mit seinem kleinsten
+     * noch freien Nachbarn zusammengefasst, damit die Größen der gröberen Knoten ausgeglichen bleiben.
+     * Knoten ohne freien Nachbarn werden unverändert übernommen.
+     *
+     * @param fein Modell der feineren Stufe
+     * @return Returns Modell der gröberen Stufe
+     */
+    private Modell vergroebere(Modell fein) {
+        int[] zuordnung = new int[fein.anzahl];
+        Arrays.fill(zuordnung, -1);
+        int anzahl = 0;
+        for (int i = 0; i < fein.anzahl; i++) {
+            if (zuordnung[i] >= 0) {
+                continue;
+            }
+            int bester = -1;
+            for (int n = fein.nachbarStart[i]; n < fein.nachbarStart[i + 1]; n++) {
+                int j = fein.nachbarIndex[n];
+                if (zuordnung[j] < 0 && (bester < 0 || fein.radius[j] < fein.radius[bester])) {
+                    bester = j;
+                }
+            }
+            zuordnung[i] = anzahl;
+            if (bester >= 0) {
+                zuordnung[bester] = anzahl;
+            }
+            anzahl++;
+        }
+
+        //Flächengewichtete Schwerpunkte und gemeinsame Flächen
+        double[] x = new double[anzahl];
+        double[] y = new double[anzahl];
+        double[] flaeche = new double[anzahl];
+        for (int i = 0; i < fein.anzahl; i++) {
+            int c = zuordnung[i];
+            double f = fein.radius[i] * fein.radius[i];
+            x[c] += f * fein.x[i];
+            y[c] += f * fein.y[i];
+            flaeche[c] += f;
+        }
+        double[] radius = new double[anzahl];
+        for (int c = 0; c < anzahl; c++) {
+            x[c] /= flaeche[c];
+            y[c] /= flaeche[c];
+            radius[c] = Math.sqrt(flaeche[c]);
+        }
+        double[] vX = new double[fein.anzahl];
+        double[] vY = new double[fein.anzahl];
+        for (int i = 0; i < fein.anzahl; i++) {
+            vX[i] = fein.x[i] - x[zuordnung[i]];
+            vY[i] = fein.y[i] - y[zuordnung[i]];
+        }
+
+        //Nachbarn der gröberen Knoten im CSR Format, aufsteigend sortiert und ohne Duplikate
+        int[] nachbarStart = new int[anzahl + 1];
+        for (int i = 0; i < fein.anzahl; i++) {
+            nachbarStart[zuordnung[i] + 1] += fein.nachbarStart[i + 1] - fein.nachbarStart[i];
+        }
+        for (int c = 0; c < anzahl; c++) {
+            nachbarStart[c + 1] += nachbarStart[c];
+        }
+        int[] kandidaten = new int[nachbarStart[anzahl]];
+        int[] position = Arrays.copyOf(nachbarStart, anzahl);
+        for (int i = 0; i < fein.anzahl; i++) {
+            for (int n = fein.nachbarStart[i]; n < fein.nachbarStart[i + 1]; n++) {
+                kandidaten[position[zuordnung[i]]++] = zuordnung[fein.nachbarIndex[n]];
+            }
+        }
+        int[] nachbarIndex = new int[kandidaten.length];
+        int belegt = 0;
+        for (int c = 0; c < anzahl; c++) {
+            int von = nachbarStart[c];
+            int bis = position[c];
+            nachbarStart[c] = belegt;
+            Arrays.sort(kandidaten, von, bis);
+            for (int k = von; k < bis; k++) {
+                int j = kandidaten[k];
+                if (j != c && (belegt == nachbarStart[c] || nachbarIndex[belegt - 1] != j)) {
+                    nachbarIndex[belegt++] = j;
+                }
+            }
+        }
+        nachbarStart[anzahl] = belegt;
+
+        this.grob.add(zuordnung);
+        this.versatzX.add(vX);
+        this.versatzY.add(vY);
+        return new Modell(x, y, radius, x.clone(), y.clone(), nachbarStart, Arrays.copyOf(nachbarIndex, belegt));
+    }
+
+    /**
+     * Methode zum Übernehmen der Positionen einer gröberen Stufe in die feinere. Die alten Punkte werden ebenfalls gesetzt,
+     * damit epsilon in der ersten Iteration der feineren Stufe nur die tatsächliche Bewegung enthält.
+     *
+     * @param fein      Modell der feineren Stufe
+     * @param grob      bereits berechnetes Modell der gröberen Stufe
+     * @param zuordnung Index des gröberen Knotens jedes Knotens der feineren Stufe
+     * @param vX        x Abstand jedes Knotens zu seinem gröberen Knoten beim Vergröbern
+     * @param vY        y Abstand jedes Knotens zu seinem gröberen Knoten beim Vergröbern
+     */
+    private static void uebernehme(Modell fein, Modell grob, int[] zuordnung, double[] vX, double[] vY) {
+        for (int i = 0; i < fein.anzahl; i++) {
+            fein.x[i] = grob.x[zuordnung[i]] + vX[i];
+            fein.y[i] = grob.y[zuordnung[i]] + vY[i];
+            fein.altX[i] = fein.x[i];
+            fein.altY[i] = fein.y[i];
+        }
+    }
+}
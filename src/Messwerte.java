@@ -0,0 +1,34 @@
+import java.util.Locale;
+
+/**
+ * Einfache Hilfsklasse für die Messwerte einer Iteration des Hauptalgorithmus. Da es eine Hilfsklasse ist, sind alle Attribute public.
+ *
+ * @author ehamada
+ * <p>
+ * Attribute <br>
+ * anzahl - Anzahl der Länder <br>
+ * iteration - Nummer der Iteration, beginnend bei 1 <br>
+ * epsilon - Veränderung in der Iteration, wird mit der Abbruchschwelle verglichen <br>
+ * maxVerschiebung - größte Verschiebung eines einzelnen Landes <br>
+ * ueberlappungen - Anzahl der Paare von Ländern, deren Kreise sich zu Beginn der Iteration überlappen <br>
+ * anziehungsEnergie - Summe der quadrierten Anziehungskräfte zwischen Nachbarn, die sich nicht berühren <br>
+ * nanosKraefte - Zeit zum Berechnen der Kräfte in Nanosekunden (im parallelen Modus inklusive Verschiebungen) <br>
+ * nanosAnwenden - Zeit zum Anwenden der Kräfte und Berechnen von epsilon in Nanosekunden
+ */
+public class Messwerte {
+    public int anzahl;
+    public int iteration;
+    public double epsilon;
+    public double maxVerschiebung;
+    public int ueberlappungen;
+    public double anziehungsEnergie;
+    public long nanosKraefte;
+    public long nanosAnwenden;
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "Iteration %d: epsilon=%.6f maxVerschiebung=%.6f ueberlappungen=%d anziehungsEnergie=%.3f kraefte=%.3fms anwenden=%.3fms",
+                iteration, epsilon, maxVerschiebung, ueberlappungen, anziehungsEnergie, nanosKraefte / 1e6, nanosAnwenden / 1e6);
+    }
+}
@@ -0,0 +1,120 @@
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.TreeSet;
+
+/**
+ * Internes Modell des Hauptalgorithmus. Es wird einmal aus der Liste der Länder erstellt
+ * und speichert alle Werte, die in der Iteration gebraucht werden, in Arrays aus primitiven Datentypen.
+ * Jedes Land wird über seinen Index in der Liste identifiziert.
+ * Die Nachbarn werden im CSR Format gespeichert: die Nachbarn von Land i stehen in
+ * nachbarIndex[nachbarStart[i]] bis nachbarIndex[nachbarStart[i + 1] - 1], aufsteigend sortiert.
+ * <p>
+ * Nach der Iteration werden die Ergebnisse mit schreibeZurueck in die Länder übernommen.
+ *
+ * @author ehamada
+ */
+public class Modell {
+    /**
+     * Attribute:
+     *
+     * @anzahl Anzahl der Länder
+     * @x x Koordinaten der Länder, kann im parallelen Modus gegen einen Puffer getauscht werden
+     * @y y Koordinaten der Länder, kann im parallelen Modus gegen einen Puffer getauscht werden
+     * @radius Radien der Länder
+     * @altX x Koordinaten der vorherigen Iteration, bei der ersten entsprechen sie denen der Startländer
+     * @altY y Koordinaten der vorherigen Iteration, bei der ersten entsprechen sie denen der Startländer
+     * @nachbarStart Startposition der Nachbarn jedes Landes in nachbarIndex, hat anzahl + 1 Einträge
+     * @nachbarIndex Indizes der Nachbarn aller Länder
+     */
+    public final int anzahl;
+    public double[] x;
+    public double[] y;
+    public final double[] radius;
+    public final double[] altX;
+    public final double[] altY;
+    public final int[] nachbarStart;
+    public final int[] nachbarIndex;
+
+    /**
+     * Konstruktor der Klasse, übernimmt Koordinaten, Radien und Nachbarn aus der Liste der Länder.
+     * Das Land selbst wird dabei nicht als Nachbar übernommen, doppelte Nachbarn nur einmal.
+     *
+     * @param laender Liste der Länder
+     */
+    public Modell(ArrayList<Land> laender) {
+        this.anzahl = laender.size();
+        this.x = new double[anzahl];
+        this.y = new double[anzahl];
+        this.radius = new double[anzahl];
+        this.altX = new double[anzahl];
+        this.altY = new double[anzahl];
+        this.nachbarStart = new int[anzahl + 1];
+
+        IdentityHashMap<Land, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < anzahl; i++) {
+            Land land = laender.get(i);
+            index.put(land, i);
+            this.x[i] = land.x;
+            this.y[i] = land.y;
+            this.radius[i] = land.radius;
+            this.altX[i] = land.x;
+            this.altY[i] = land.y;
+        }
+        int[][] nachbarn = new int[anzahl][];
+        for (int i = 0; i < anzahl; i++) {
+            TreeSet<Integer> sortiert = new TreeSet<>();
+            for (Land nachbar : laender.get(i).nachbarn) {
+                Integer j = index.get(nachbar);
+                if (j != null && j != i) {
+                    sortiert.add(j);
+                }
+            }
+            nachbarn[i] = new int[sortiert.size()];
+            int k = 0;
+            for (int j : sortiert) {
+                nachbarn[i][k++] = j;
+            }
+            this.nachbarStart[i + 1] = this.nachbarStart[i] + k;
+        }
+        this.nachbarIndex = new int[this.nachbarStart[anzahl]];
+        for (int i = 0; i < anzahl; i++) {
+            System.arraycopy(nachbarn[i], 0, this.nachbarIndex, this.nachbarStart[i], nachbarn[i].length);
+        }
+    }
+
+    /**
+     * Konstruktor für Teilmodelle, übernimmt die übergebenen Arrays ohne sie zu kopieren
+     *
+     * @param x            x Koordinaten der Länder
+     * @param y            y Koordinaten der Länder
+     * @param radius       Radien der Länder
+     * @param altX         x Koordinaten der vorherigen Iteration
+     * @param altY         y Koordinaten der vorherigen Iteration
+     * @param nachbarStart Startposition der Nachbarn jedes Landes in nachbarIndex
+     * @param nachbarIndex Indizes der Nachbarn aller Länder, für jedes Land aufsteigend sortiert
+     */
+    Modell(double[] x, double[] y, double[] radius, double[] altX, double[] altY, int[] nachbarStart, int[] nachbarIndex) {
+        this.anzahl = x.length;
+        this.x = x;
+        this.y = y;
+        this.radius = radius;
+        this.altX = altX;
+        this.altY = altY;
+        this.nachbarStart = nachbarStart;
+        this.nachbarIndex = nachbarIndex;
+    }
+
+    /**
+     * Methode zum Übernehmen der berechneten Koordinaten und Radien in die Länder
+     *
+     * @param laender Liste der Länder, aus der das Modell erstellt wurde
+     */
+    public void schreibeZurueck(ArrayList<Land> laender) {
+        for (int i = 0; i < anzahl; i++) {
+            Land land = laender.get(i);
+            land.x = this.x[i];
+            land.y = this.y[i];
+            land.radius = this.radius[i];
+        }
+    }
+}
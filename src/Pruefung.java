@@ -0,0 +1,241 @@
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Einfache Hilfsklasse für die Prüfung eines fertigen Layouts, z.B. nach dem Hauptalgorithmus, mit der Option --pruefen
+ * oder als Schranke im Benchmark. Da es eine Hilfsklasse ist, sind alle Attribute public.
+ * Dieselbe Prüfung liefert auch die Qualität mit Zeitbudget (siehe {@link Qualitaet}) und die Messwerte jeder Iteration.
+ * <p>
+ * Überlappungen werden mit einem Raster (siehe {@link Raster}) pro Größenklasse gesucht: in einer Klasse liegen die Radien
+ * innerhalb eines Faktors 2, die Zellgröße jedes Rasters ist (bis auf Rundung) der doppelte größte Radius seiner Klasse. Jeder Kreis sucht
+ * in den Rastern seiner und aller größeren Klassen, so wird jedes Paar gefunden, aber nur einmal verglichen.
+ * Ein einzelner sehr großer Radius macht damit nur die Zellen seiner eigenen Klasse groß, nicht die aller Länder.
+ * Das braucht O(n K) für K Klassen (log2 des Verhältnisses von größtem zu kleinstem Radius, höchstens KLASSEN) plus die Kandidaten
+ * in den umliegenden Zellen. Da die Kreise einer Klasse ähnlich groß sind, sind das wenige, solange sich nicht sehr viele Kreise
+ * gegenseitig überlappen. Bei Radien innerhalb eines Faktors 2 ist es genau ein Raster wie im Hauptalgorithmus.
+ * Die Lücken werden für jedes Paar von Nachbarn einmal berechnet.
+ *
+ * @author ehamada
+ * <p>
+ * Attribute <br>
+ * anzahl - Anzahl der Länder <br>
+ * ueberlappungen - Anzahl der Paare von Ländern, deren Kreise sich überlappen <br>
+ * maxTiefe - größte Eindringtiefe (Summe der Radien - Distanz) eines Paares, 0 ohne Überlappungen <br>
+ * ueberlappung - Summe der Eindringtiefen über alle Paare <br>
+ * nachbarPaare - Anzahl der Paare von Nachbarn <br>
+ * luecken - Summe der Abstände zwischen den Kreisen benachbarter Länder, überlappende Nachbarn zählen mit 0 <br>
+ * mittlereLuecke - mittlerer Abstand zwischen den Kreisen benachbarter Länder <br>
+ * maxLuecke - größter Abstand zwischen den Kreisen benachbarter Länder <br>
+ * anziehungsEnergie - Summe der Quadrate der Abstände zwischen den Kreisen benachbarter Länder <br>
+ * mittlereVerschiebung - mittlere Distanz jedes Landes zu seiner geographischen Lage (skaliert wie in der Voriteration), NaN ohne Lage <br>
+ * maxVerschiebung - größte Distanz eines Landes zu seiner geographischen Lage, NaN ohne Lage
+ */
+public class Pruefung {
+    public int anzahl;
+    public int ueberlappungen;
+    public double maxTiefe;
+    public double ueberlappung;
+    public int nachbarPaare;
+    public double luecken;
+    public double mittlereLuecke;
+    public double maxLuecke;
+    public double anziehungsEnergie;
+    public double mittlereVerschiebung = Double.NaN;
+    public double maxVerschiebung = Double.NaN;
+
+    /**
+     * Methode zum Merken der geographischen Lage der Länder, muss vor dem Hauptalgorithmus aufgerufen werden
+     *
+     * @param laender Eingelesene Länder
+     * @return Returns Längengrade in [0] und Breitengrade in [1]
+     */
+    public static double[][] lage(ArrayList<Land> laender) {
+        double[][] lage = new double[2][laender.size()];
+        for (int i = 0; i < laender.size(); i++) {
+            lage[0][i] = laender.get(i).x;
+            lage[1][i] = laender.get(i).y;
+        }
+        return lage;
+    }
+
+    /**
+     * Methode zum Prüfen der Länder nach dem Hauptalgorithmus
+     *
+     * @param laender Länder mit den berechneten Koordinaten und Radien
+     * @param lage    Geographische Lage der Länder aus lage, null wenn die Verschiebung nicht geprüft werden soll
+     * @return Returns Ergebnis der Prüfung
+     */
+    public static Pruefung pruefe(ArrayList<Land> laender, double[][] lage) {
+        Modell modell = new Modell(laender);
+        int n = modell.anzahl;
+        Pruefung p = pruefe(modell.x, modell.y, modell, new Puffer());
+
+        if (lage != null && n > 0) {
+            double summe = 0;
+            p.maxVerschiebung = 0;
+            for (int i = 0; i < n; i++) {
+                double dx = modell.x[i] - lage[0][i] * Algorithmus.SKALIERUNG;
+                double dy = modell.y[i] - lage[1][i] * Algorithmus.SKALIERUNG;
+                double d = Math.sqrt(dx * dx + dy * dy);
+                summe += d;
+                p.maxVerschiebung = Double.max(p.maxVerschiebung, d);
+            }
+            p.mittlereVerschiebung = summe / n;
+        }
+        return p;
+    }
+
+    /**
+     * Methode zum Prüfen von Koordinaten mit den Radien und Nachbarn eines Modells, ohne die Verschiebung.
+     * Wird auch für die Qualität (siehe {@link Qualitaet}) und die Messwerte jeder Iteration genutzt.
+     *
+     * @param x      x Koordinaten der Länder
+     * @param y      y Koordinaten der Länder
+     * @param modell Modell mit den Radien und Nachbarn der Länder
+     * @param puffer Puffer mit den Rastern der Größenklassen, bei wiederholten Aufrufen mit demselben Modell derselbe
+     * @return Returns Ergebnis der Prüfung
+     */
+    static Pruefung pruefe(double[] x, double[] y, Modell modell, Puffer puffer) {
+        Pruefung p = new Pruefung();
+        int n = modell.anzahl;
+        double[] radius = modell.radius;
+        p.anzahl = n;
+        puffer.baue(x, y, radius, n);
+        Raster.Treffer treffer = puffer.treffer;
+        for (int i = 0; i < n; i++) {
+            //Überlappungen mit Kreisen derselben oder einer größeren Klasse, in derselben Klasse jedes Paar einmal (j > i)
+            int klasse = puffer.klasse[i];
+            for (int k = 0; k <= klasse; k++) {
+                int[] glieder = puffer.glieder[k];
+                puffer.raster[k].suche(x[i], y[i], treffer);
+                for (int t = 0; t < treffer.anzahl; t++) {
+                    int j = glieder[treffer.index[t]];
+                    if (k == klasse && j <= i) {
+                        continue;
+                    }
+                    double kraft = Algorithmus.kraft(x, y, radius, i, j);
+                    if (kraft < 0) {
+                        p.ueberlappungen++;
+                        p.ueberlappung -= kraft;
+                        p.maxTiefe = Double.max(p.maxTiefe, -kraft);
+                    }
+                }
+            }
+        }
+        //Lücken zwischen Nachbarn, jedes Paar einmal
+        for (int i = 0; i < n; i++) {
+            for (int m = modell.nachbarStart[i]; m < modell.nachbarStart[i + 1]; m++) {
+                int j = modell.nachbarIndex[m];
+                if (j <= i) {
+                    continue;
+                }
+                double luecke = Double.max(0, Algorithmus.kraft(x, y, radius, i, j));
+                p.nachbarPaare++;
+                p.luecken += luecke;
+                p.anziehungsEnergie += luecke * luecke;
+                p.maxLuecke = Double.max(p.maxLuecke, luecke);
+            }
+        }
+        p.mittlereLuecke = p.nachbarPaare > 0 ? p.luecken / p.nachbarPaare : 0;
+        return p;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "Prüfung %d Länder: ueberlappungen=%d maxTiefe=%.6f nachbarPaare=%d mittlereLuecke=%.6f maxLuecke=%.6f mittlereVerschiebung=%.3f maxVerschiebung=%.3f",
+                anzahl, ueberlappungen, maxTiefe, nachbarPaare, mittlereLuecke, maxLuecke, mittlereVerschiebung, maxVerschiebung);
+    }
+
+    /**
+     * Puffer mit den Größenklassen der Radien und einem Raster pro Klasse. Die Klassen werden nur neu berechnet,
+     * wenn sich das Array der Radien ändert, die Raster bei jedem Aufruf mit den aktuellen Koordinaten neu aufgebaut.
+     * Jeder Aufrufer (bzw. jeder Thread) braucht einen eigenen Puffer.
+     * <p>
+     * Attribute: <br>
+     * KLASSEN - Höchstzahl der Klassen, noch kleinere Radien kommen in die kleinste Klasse <br>
+     * radius - Radien, für die die Klassen berechnet wurden <br>
+     * klasse - Klasse jedes Landes, 0 ist die Klasse mit dem größten Radius, leere Klassen werden übersprungen <br>
+     * glieder - Länder jeder Klasse, die Indizes im Raster einer Klasse zeigen in dieses Array <br>
+     * x, y - Koordinaten der Länder jeder Klasse, mit denen ihr Raster aufgebaut wird
+     */
+    static class Puffer {
+        private static final int KLASSEN = 32;
+        private double[] radius = null;
+        private int[] klasse;
+        private int[][] glieder;
+        private double[][] x;
+        private double[][] y;
+        private Raster[] raster;
+        private final Raster.Treffer treffer = new Raster.Treffer();
+
+        /**
+         * Baut die Raster aller Klassen mit den Koordinaten auf, teilt die Länder vorher in Klassen ein, wenn die Radien neu sind
+         */
+        void baue(double[] x, double[] y, double[] radius, int n) {
+            if (this.radius != radius || this.klasse.length != n) {
+                teile(radius, n);
+            }
+            for (int k = 0; k < this.glieder.length; k++) {
+                int[] glieder = this.glieder[k];
+                for (int m = 0; m < glieder.length; m++) {
+                    this.x[k][m] = x[glieder[m]];
+                    this.y[k][m] = y[glieder[m]];
+                }
+                this.raster[k].baue(this.x[k], this.y[k], glieder.length);
+            }
+        }
+
+        private void teile(double[] radius, int n) {
+            double rMax = 0;
+            for (int i = 0; i < n; i++) {
+                rMax = Double.max(rMax, radius[i]);
+            }
+            //Klasse c enthält die Radien in (rMax / 2^(c + 1), rMax / 2^c]
+            int[] klasse = new int[n];
+            int[] groesse = new int[KLASSEN];
+            for (int i = 0; i < n; i++) {
+                int c = KLASSEN - 1;
+                if (radius[i] > 0) {
+                    c = (int) Math.min(KLASSEN - 1, Math.floor(Math.log(rMax / radius[i]) / Math.log(2)));
+                }
+                klasse[i] = c;
+                groesse[c]++;
+            }
+            //Leere Klassen entfernen, die Reihenfolge (größte Radien zuerst) bleibt
+            int[] neu = new int[KLASSEN];
+            int anzahl = 0;
+            for (int c = 0; c < KLASSEN; c++) {
+                neu[c] = anzahl;
+                if (groesse[c] > 0) {
+                    groesse[anzahl++] = groesse[c];
+                }
+            }
+            this.glieder = new int[anzahl][];
+            this.x = new double[anzahl][];
+            this.y = new double[anzahl][];
+            this.raster = new Raster[anzahl];
+            for (int k = 0; k < anzahl; k++) {
+                this.glieder[k] = new int[groesse[k]];
+                this.x[k] = new double[groesse[k]];
+                this.y[k] = new double[groesse[k]];
+            }
+            int[] fuellung = new int[anzahl];
+            double[] rMaxKlasse = new double[anzahl];
+            for (int i = 0; i < n; i++) {
+                int k = neu[klasse[i]];
+                klasse[i] = k;
+                this.glieder[k][fuellung[k]++] = i;
+                rMaxKlasse[k] = Double.max(rMaxKlasse[k], radius[i]);
+            }
+            //Die Zelle muss den größten Radius der Klasse plus den größten Radius aller Kreise abdecken, die in ihr suchen
+            double rMaxKleiner = 0;
+            for (int k = anzahl - 1; k >= 0; k--) {
+                rMaxKleiner = Double.max(rMaxKleiner, rMaxKlasse[k]);
+                this.raster[k] = new Raster(rMaxKlasse[k] + rMaxKleiner);
+            }
+            this.klasse = klasse;
+            this.radius = radius;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+import java.util.Locale;
+
+/**
+ * Einfache Hilfsklasse für die Bewertung eines Layouts. Da es eine Hilfsklasse ist, sind alle Attribute public.
+ * Ein Layout ist umso besser, je kleiner der Wert ist. Bei einem perfekten Layout überlappen sich keine Kreise
+ * und alle Nachbarn berühren sich, der Wert ist dann 0.
+ *
+ * @author ehamada
+ * <p>
+ * Attribute <br>
+ * ueberlappungen - Anzahl der Paare von Ländern, deren Kreise sich überlappen <br>
+ * ueberlappung - Summe der Überlappungen (Summe der Radien - Distanz) über alle Paare <br>
+ * luecken - Summe der Abstände zwischen den Kreisen benachbarter Länder, die sich nicht berühren <br>
+ * wert - ueberlappung + luecken
+ */
+public class Qualitaet {
+    public int ueberlappungen;
+    public double ueberlappung;
+    public double luecken;
+    public double wert;
+
+    /**
+     * Methode zum Bewerten der aktuellen Koordinaten eines Modells mit {@link Pruefung}. Jedes Paar wird nur einmal gezählt.
+     *
+     * @param modell Modell, das bewertet wird
+     * @param puffer Puffer für die Prüfung, bei wiederholten Aufrufen derselbe
+     * @return Returns Qualität des Layouts
+     */
+    public static Qualitaet berechne(Modell modell, Pruefung.Puffer puffer) {
+        Pruefung p = Pruefung.pruefe(modell.x, modell.y, modell, puffer);
+        Qualitaet q = new Qualitaet();
+        q.ueberlappungen = p.ueberlappungen;
+        q.ueberlappung = p.ueberlappung;
+        q.luecken = p.luecken;
+        q.wert = q.ueberlappung + q.luecken;
+        return q;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "Qualität %.6f (%d Überlappungen mit Summe %.6f, Lücken zwischen Nachbarn %.6f)",
+                wert, ueberlappungen, ueberlappung, luecken);
+    }
+}
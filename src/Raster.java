@@ -0,0 +1,177 @@
+import java.util.Arrays;
+
+/**
+ * Gleichmäßiges Raster über den Mittelpunkten der Länder. Es wird vom Hauptalgorithmus genutzt,
+ * um für ein Land nur die Länder in den umliegenden Zellen auf Überlappung zu prüfen, statt alle anderen Länder.
+ * <p>
+ * Die Zellgröße entspricht dem doppelten maximalen Radius. Zwei Kreise können sich also nur überlappen,
+ * wenn ihre Mittelpunkte in derselben oder in benachbarten Zellen liegen.
+ * Da die Koordinaten nicht beschränkt sind, werden die Zellen über eine Hashtabelle auf Buckets verteilt,
+ * die Länder eines Buckets sind über das Array naechster verkettet.
+ *
+ * @author ehamada
+ */
+public class Raster {
+    /**
+     * Attribute:
+     *
+     * @zellGroesse Kantenlänge einer Zelle
+     * @kopf Erstes Land (Index) jedes Buckets, -1 wenn der Bucket leer ist
+     * @naechster Nächstes Land (Index) im selben Bucket, -1 am Ende der Kette
+     * @maske Maske zum Berechnen des Buckets, Anzahl der Buckets ist immer eine Zweierpotenz
+     */
+    private final double zellGroesse;
+    private int[] kopf = new int[0];
+    private int[] naechster = new int[0];
+    private int maske;
+
+    /**
+     * Konstruktor der Klasse, erstellt ein leeres Raster
+     *
+     * @param zellGroesse Kantenlänge einer Zelle, sollte mindestens dem doppelten maximalen Radius entsprechen
+     */
+    public Raster(double zellGroesse) {
+        this.zellGroesse = zellGroesse;
+    }
+
+    /**
+     * Methode zum (Neu-)Aufbauen des Rasters mit den aktuellen Koordinaten. Muss nach jeder Verschiebung der Punkte aufgerufen werden.
+     *
+     * @param x      x Koordinaten der Länder
+     * @param y      y Koordinaten der Länder
+     * @param anzahl Anzahl der Länder
+     */
+    public void baue(double[] x, double[] y, int anzahl) {
+        int groesse = 1;
+        while (groesse < 2 * anzahl) {    //Mindestens doppelt so viele Buckets wie Länder, damit wenige Kollisionen entstehen
+            groesse <<= 1;
+        }
+        if (this.kopf.length != groesse) {
+            this.kopf = new int[groesse];
+        }
+        if (this.naechster.length < anzahl) {
+            this.naechster = new int[anzahl];
+        }
+        this.maske = groesse - 1;
+        Arrays.fill(this.kopf, -1);
+        for (int i = 0; i < anzahl; i++) {
+            int bucket = bucket(zelle(x[i]), zelle(y[i]));
+            this.naechster[i] = this.kopf[bucket];
+            this.kopf[bucket] = i;
+        }
+    }
+
+    /**
+     * Methode zum Aktualisieren eines einzelnen Landes nach einer Verschiebung, ohne das ganze Raster neu aufzubauen.
+     * Wechselt das Land die Zelle, wird es aus seinem Bucket entfernt und in den neuen eingefügt.
+     * Die Reihenfolge der Länder in den Buckets kann sich dabei von einem neu aufgebauten Raster unterscheiden.
+     *
+     * @param i    Index des Landes
+     * @param altX x Koordinate, mit der das Land im Raster steht
+     * @param altY y Koordinate, mit der das Land im Raster steht
+     * @param x    neue x Koordinate
+     * @param y    neue y Koordinate
+     */
+    public void verschiebe(int i, double altX, double altY, double x, double y) {
+        long zx = zelle(x);
+        long zy = zelle(y);
+        long altZx = zelle(altX);
+        long altZy = zelle(altY);
+        if (zx == altZx && zy == altZy) {
+            return;
+        }
+        int alt = bucket(altZx, altZy);
+        int neu = bucket(zx, zy);
+        if (alt == neu) {
+            return;
+        }
+        if (this.kopf[alt] == i) {
+            this.kopf[alt] = this.naechster[i];
+        } else {
+            int k = this.kopf[alt];
+            while (this.naechster[k] != i) {
+                k = this.naechster[k];
+            }
+            this.naechster[k] = this.naechster[i];
+        }
+        this.naechster[i] = this.kopf[neu];
+        this.kopf[neu] = i;
+    }
+
+    /**
+     * Methode zum Suchen aller Länder in der Zelle des Punktes und den 8 umliegenden Zellen.
+     * Das Ergebnis kann zusätzlich Länder aus anderen Zellen enthalten (bei Kollisionen in der Hashtabelle),
+     * der Aufrufer muss den Abstand also selbst prüfen. Jedes Land ist höchstens einmal enthalten.
+     *
+     * @param px      x Koordinate des Punktes
+     * @param py      y Koordinate des Punktes
+     * @param treffer Puffer, in den die gefundenen Indizes geschrieben werden
+     */
+    public void suche(double px, double py, Treffer treffer) {
+        treffer.anzahl = 0;
+        long zx = zelle(px);
+        long zy = zelle(py);
+        int[] besucht = treffer.besucht;
+        int anzahlBesucht = 0;
+        for (long dx = -1; dx <= 1; dx++) {
+            for (long dy = -1; dy <= 1; dy++) {
+                int bucket = bucket(zx + dx, zy + dy);
+                boolean doppelt = false;
+                for (int k = 0; k < anzahlBesucht; k++) {   //Falls zwei Zellen auf denselben Bucket fallen, wird er nur einmal durchsucht
+                    if (besucht[k] == bucket) {
+                        doppelt = true;
+                        break;
+                    }
+                }
+                if (doppelt) {
+                    continue;
+                }
+                besucht[anzahlBesucht++] = bucket;
+                for (int i = this.kopf[bucket]; i != -1; i = this.naechster[i]) {
+                    treffer.add(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Berechnet die Zelle einer Koordinate
+     */
+    private long zelle(double wert) {
+        return (long) Math.floor(wert / this.zellGroesse);
+    }
+
+    /**
+     * Berechnet den Bucket einer Zelle, die Faktoren verteilen benachbarte Zellen auf unterschiedliche Buckets
+     */
+    private int bucket(long zx, long zy) {
+        long h = zx * 0x9E3779B97F4A7C15L + zy * 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 32)) & this.maske;
+    }
+
+    /**
+     * Puffer für das Ergebnis einer Suche. Jeder Aufrufer (bzw. jeder Thread) braucht einen eigenen Puffer.
+     */
+    public static class Treffer {
+        public int[] index = new int[32];
+        public int anzahl;
+        public double[] kraft = new double[0];    //Wird nur von einem Kern (siehe Kern) genutzt
+        private final int[] besucht = new int[9];
+
+        void add(int i) {
+            if (this.anzahl == this.index.length) {
+                this.index = Arrays.copyOf(this.index, this.anzahl * 2);
+            }
+            this.index[this.anzahl++] = i;
+        }
+
+        /**
+         * Stellt sicher, dass kraft so lang ist wie index
+         */
+        void reserviereKraft() {
+            if (this.kraft.length < this.index.length) {
+                this.kraft = new double[this.index.length];
+            }
+        }
+    }
+}
@@ -0,0 +1,378 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Sicherung des Zustands des Iterationsverfahrens in eine binäre Datei, damit eine lange Berechnung nach einem Abbruch
+ * mit --resume fortgesetzt werden kann. Gesichert werden die Koordinaten, die alten Koordinaten,
+ * die gespeicherten Kräfte, der Zustand des Verfahrens für die Schrittweite, die Anzahl der Iterationen und epsilon.
+ * Ein fortgesetzter Lauf liefert damit dasselbe Ergebnis wie ein Lauf ohne Unterbrechung.
+ * <p>
+ * Gesichert wird entweder alle n Iterationen oder automatisch nach der gemessenen Dauer der letzten Sicherung:
+ * die nächste folgt frühestens nach FAKTOR mal dieser Dauer, mindestens aber nach ABSTAND.
+ * Das Schreiben kostet damit höchstens etwa 1 % der Rechenzeit, bei 100000 Ländern (20 bis 40 ms pro Sicherung)
+ * wird etwa alle 2 bis 4 Sekunden gesichert, bei kleinen Eingaben einmal pro Sekunde.
+ * <p>
+ * Die Datei wird über einen MappedByteBuffer geschrieben, eine Sicherung ist also nur ein Kopieren in den Speicher,
+ * das Betriebssystem schreibt die Seiten im Hintergrund (gegen einen Absturz des Betriebssystems schützt das nicht).
+ * Damit ein Abbruch während des Schreibens die letzte Sicherung nicht zerstört, gibt es zwei Bereiche:
+ * eine neue Sicherung wird nie über die gültige geschrieben, erst danach zeigt der Kopf der Datei auf sie.
+ * Das Umschalten ist ein einziger Schreibzugriff auf 8 Bytes (die Position), Länge und Prüfsumme (CRC32) stehen im Bereich selbst.
+ * Ist die aktuelle Sicherung trotzdem unvollständig (z.B. nach einem Absturz des Betriebssystems), wird die vorherige geladen.
+ * <p>
+ * Aufbau: Kopf (KOPF Bytes: Kennung der Datei, Version, Anzahl der Länder, Kennung der Berechnung, Position der aktuellen
+ * und der vorherigen Sicherung), danach die Bereiche. Ein Bereich enthält Länge und Prüfsumme der Daten und danach als Daten
+ * Iteration, epsilon, Anzahl der Zusatzarrays, x, y, altX, altY, die Zusatzarrays (ihre Länge legt das Verfahren fest), die Anzahl der Partner jedes Landes
+ * und danach alle Partner und Kräfte.
+ * <p>
+ * Die Kennung der Berechnung ist ein Hash des Modus und des Modells zu Beginn (Radien, Nachbarn und Positionen nach der Voriteration
+ * und einem Startlayout), geänderte Koordinaten der Eingabe oder ein anderes --warmstart ergeben also eine andere Kennung.
+ * Passt eine vorhandene Sicherung bei --resume nicht zur Eingabe oder zu den Optionen, wird sie nicht angefasst und
+ * die Berechnung mit einem {@link Sicherungsfehler} abgewiesen. Ohne --resume wird eine vorhandene Sicherung überschrieben.
+ * Nach einer vollständigen Berechnung wird die Datei gelöscht. Meldungen (z.B. eine unvollständige Sicherung) gehen auf die Standardfehlerausgabe.
+ *
+ * @author ehamada
+ */
+public class Sicherung {
+    /**
+     * Attribute:
+     *
+     * @datei Pfad der Sicherungsdatei
+     * @intervall Anzahl der Iterationen zwischen zwei Sicherungen, AUTOMATISCH für einen Abstand nach der Dauer des Schreibens
+     * @naechste Zeitpunkt, ab dem automatisch wieder gesichert wird, in Nanosekunden (System.nanoTime)
+     * @fortsetzen true, wenn eine vorhandene Sicherung geladen wird, sonst wird sie überschrieben
+     * @kanal Kanal der geöffneten Datei, null solange nichts gelesen oder geschrieben wurde
+     * @puffer Gemappter Bereich der Datei ab Position 0
+     * @epsilon epsilon der zuletzt geladenen Sicherung
+     * @aktuell Position der zuletzt geladenen oder geschriebenen Sicherung, 0 wenn es keine gibt
+     * @kennung Kennung der Berechnung, von pruefe zu Beginn festgelegt
+     * @MAGIC Kennung am Anfang jeder Sicherungsdatei
+     * @VERSION Version des Aufbaus
+     * @KOPF Größe des Kopfes in Bytes
+     * @BEREICH Größe von Länge und Prüfsumme am Anfang jedes Bereichs in Bytes
+     * @AUTOMATISCH Intervall für den automatischen Abstand
+     * @FAKTOR Vielfaches der Dauer der letzten Sicherung, das bis zur nächsten automatischen Sicherung gerechnet wird
+     * @ABSTAND Mindestabstand zweier automatischer Sicherungen in Nanosekunden
+     */
+    private final Path datei;
+    private final int intervall;
+    private long naechste;
+    private final boolean fortsetzen;
+    private FileChannel kanal = null;
+    private MappedByteBuffer puffer = null;
+    private double epsilon;
+    private long aktuell = 0;
+    private long kennung;
+    private static final long MAGIC = 0x4c414e4453494348L;    //"LANDSICH"
+    private static final int VERSION = 4;
+    private static final int KOPF = 64;
+    private static final int BEREICH = 16;
+    public static final int AUTOMATISCH = 0;
+    private static final long FAKTOR = 100;
+    private static final long ABSTAND = 1_000_000_000L;
+
+    /**
+     * Konstruktor der Klasse, die Datei wird erst bei der ersten Sicherung angelegt
+     *
+     * @param datei     Pfad der Sicherungsdatei
+     * @param intervall  Anzahl der Iterationen zwischen zwei Sicherungen, mindestens 1, oder AUTOMATISCH
+     * @param fortsetzen true, wenn eine vorhandene Sicherung geladen wird (--resume), sonst wird sie überschrieben
+     */
+    public Sicherung(String datei, int intervall, boolean fortsetzen) {
+        if (intervall < AUTOMATISCH) {
+            throw new IllegalArgumentException("Das Intervall der Sicherung muss mindestens 1 sein");
+        }
+        this.datei = Paths.get(datei);
+        this.intervall = intervall;
+        this.fortsetzen = fortsetzen;
+        this.naechste = System.nanoTime() + ABSTAND;
+    }
+
+    /**
+     * @param iteration Anzahl der bisherigen Iterationen
+     * @return Returns true, wenn nach dieser Iteration gesichert werden soll
+     */
+    public boolean faellig(int iteration) {
+        if (this.intervall != AUTOMATISCH) {
+            return iteration % this.intervall == 0;
+        }
+        return System.nanoTime() >= this.naechste;
+    }
+
+    /**
+     * Methode zum Festlegen der Kennung der Berechnung und zum Prüfen, ob eine vorhandene Sicherung bei --resume
+     * zum Modell und zum Modus passt, bevor gerechnet wird. Muss vor lade und schreibe aufgerufen werden.
+     * Kann die Datei nicht gelesen werden, meldet das erst lade.
+     *
+     * @param modell Modell nach der Voriteration und dem Startlayout, vor der ersten Iteration
+     * @param modus  Kennung des Modus (Verfahren, sequentiell oder gleichzeitig)
+     * @throws Sicherungsfehler Falls die Sicherung nicht passt (andere Länder oder anderer Modus), die Datei bleibt dann erhalten
+     */
+    public void pruefe(Modell modell, int modus) throws Sicherungsfehler {
+        this.kennung = kennung(modell, modus);
+        try {
+            if (!this.fortsetzen || !Files.isRegularFile(this.datei) || Files.size(this.datei) < KOPF) {
+                return;
+            }
+            oeffne(Files.size(this.datei));
+        } catch (IOException e) {
+            schliesse();
+            return;
+        }
+        if (!passt(modell)) {
+            schliesse();
+            throw new Sicherungsfehler("Sicherung " + this.datei + " passt nicht zur Eingabe oder zu den Optionen (z.B. --strategie, --simd, --parallel),"
+                    + " sie wird nicht überschrieben. Ohne --resume wird von vorne gerechnet");
+        }
+    }
+
+    /**
+     * Methode zum Laden der letzten Sicherung in das Modell, die Kräfte und die Zusatzarrays.
+     * Ist die aktuelle Sicherung unvollständig, wird die vorherige geladen, sind beide unvollständig, wird von vorne gerechnet.
+     * Ob die Sicherung passt, muss vorher mit pruefe geprüft worden sein.
+     *
+     * @param modell  Modell, das pruefe übergeben wurde
+     * @param kraefte Kräfte, werden ersetzt
+     * @param zusatz  Zustand des Verfahrens für die Schrittweite, wird überschrieben
+     * @return Returns Anzahl der Iterationen der Sicherung, -1 wenn keine gültige Sicherung vorhanden ist oder nicht fortgesetzt wird
+     * @throws IOException           Falls die Datei nicht gelesen werden kann
+     * @throws IllegalStateException Falls die Sicherung nicht zum Modell passt, obwohl sie mit pruefe geprüft wurde
+     */
+    public int lade(Modell modell, Kraefte kraefte, double[][] zusatz) throws IOException {
+        if (!this.fortsetzen || !Files.isRegularFile(this.datei) || Files.size(this.datei) < KOPF) {
+            return -1;
+        }
+        oeffne(Files.size(this.datei));
+        ByteBuffer kopf = this.puffer.duplicate().order(ByteOrder.nativeOrder());
+        if (kopf.getLong(0) == 0) {     //Abbruch vor der ersten Sicherung, der Kopf wurde noch nicht geschrieben
+            return -1;
+        }
+        if (!passt(modell)) {
+            schliesse();
+            throw new IllegalStateException("Sicherung " + this.datei + " wurde nicht mit pruefe geprüft");
+        }
+        long position = kopf.getLong(24);
+        if (!gueltig(position)) {
+            position = kopf.getLong(32);
+            if (!gueltig(position)) {
+                System.err.println("Sicherung " + this.datei + " ist unvollständig, starte von vorne");
+                return -1;
+            }
+            System.err.println("Letzte Sicherung in " + this.datei + " ist unvollständig, setze mit der vorherigen fort");
+            kopf.putLong(24, position);     //Die nächste Sicherung darf die geladene nicht überschreiben
+        }
+        this.aktuell = position;
+        ByteBuffer b = this.puffer.slice((int) position + BEREICH, (int) kopf.getLong((int) position)).order(ByteOrder.nativeOrder());
+        int iteration = b.getInt();
+        this.epsilon = b.getDouble();
+        if (b.getInt() != zusatz.length) {     //Kann bei gleicher Kennung nicht passieren, da das Verfahren Teil des Modus ist
+            schliesse();
+            throw new IllegalStateException("Sicherung " + this.datei + " passt nicht zum Verfahren");
+        }
+        int n = modell.anzahl;
+        lese(b, modell.x, n);
+        lese(b, modell.y, n);
+        lese(b, modell.altX, n);
+        lese(b, modell.altY, n);
+        for (double[] z : zusatz) {
+            lese(b, z, z.length);
+        }
+        int[] anzahl = new int[n];
+        b.asIntBuffer().get(anzahl);
+        b.position(b.position() + 4 * n);
+        for (int i = 0; i < n; i++) {
+            int[] partner = new int[anzahl[i] + 2];     //Etwas Platz für Überlappungen wie im Konstruktor von Kraefte
+            b.asIntBuffer().get(partner, 0, anzahl[i]);
+            b.position(b.position() + 4 * anzahl[i]);
+            double[] kraft = new double[partner.length];
+            lese(b, kraft, anzahl[i]);
+            kraefte.ersetze(i, partner, kraft, anzahl[i]);
+        }
+        return iteration;
+    }
+
+    /**
+     * @return Returns epsilon der zuletzt geladenen Sicherung
+     */
+    public double epsilon() {
+        return this.epsilon;
+    }
+
+    /**
+     * Methode zum Schreiben einer Sicherung. Schlägt das Schreiben fehl, wird eine Meldung ausgegeben und die Berechnung läuft weiter.
+     *
+     * @param modell    Modell am Ende einer Iteration
+     * @param kraefte   Gespeicherte Kräfte
+     * @param zusatz    Zustand des Verfahrens für die Schrittweite
+     * @param iteration Anzahl der bisherigen Iterationen
+     * @param epsilon   epsilon der letzten Iteration
+     */
+    public void schreibe(Modell modell, Kraefte kraefte, double[][] zusatz, int iteration, double epsilon) {
+        long beginn = System.nanoTime();
+        int n = modell.anzahl;
+        long partner = 0;
+        for (int i = 0; i < n; i++) {
+            partner += kraefte.anzahl(i);
+        }
+        long laenge = 4 + 8 + 4 + 8L * 4 * n + 4L * n + 12 * partner;
+        for (double[] z : zusatz) {
+            laenge += 8L * z.length;
+        }
+        try {
+            if (this.kanal == null && !this.fortsetzen) {   //Ohne --resume wird eine alte Sicherung ersetzt, nicht weiterverwendet
+                Files.deleteIfExists(this.datei);
+            }
+            //Neuer Bereich direkt nach dem Kopf, wenn er dort vor die gültige Sicherung passt, sonst hinter die gültige Sicherung
+            long position = KOPF;
+            long gueltig = this.puffer != null ? this.aktuell : 0;
+            if (gueltig > 0 && KOPF + BEREICH + laenge > gueltig) {
+                position = gueltig + BEREICH + this.puffer.duplicate().order(ByteOrder.nativeOrder()).getLong((int) gueltig);
+            }
+            if (position + BEREICH + laenge > Integer.MAX_VALUE) {
+                throw new IOException("Sicherung ist größer als 2 GB");
+            }
+            oeffne(position + BEREICH + laenge);
+            //Die gültige Sicherung wird zur vorherigen, bevor ein alter Bereich überschrieben wird
+            this.puffer.duplicate().order(ByteOrder.nativeOrder()).putLong(32, gueltig);
+            ByteBuffer b = this.puffer.slice((int) position + BEREICH, (int) laenge).order(ByteOrder.nativeOrder());
+            b.putInt(iteration);
+            b.putDouble(epsilon);
+            b.putInt(zusatz.length);
+            schreibe(b, modell.x, n);
+            schreibe(b, modell.y, n);
+            schreibe(b, modell.altX, n);
+            schreibe(b, modell.altY, n);
+            for (double[] z : zusatz) {
+                schreibe(b, z, z.length);
+            }
+            for (int i = 0; i < n; i++) {
+                b.putInt(kraefte.anzahl(i));
+            }
+            for (int i = 0; i < n; i++) {
+                b.asIntBuffer().put(kraefte.partnerListe(i), 0, kraefte.anzahl(i));
+                b.position(b.position() + 4 * kraefte.anzahl(i));
+                schreibe(b, kraefte.kraftListe(i), kraefte.anzahl(i));
+            }
+            ByteBuffer kopf = this.puffer.duplicate().order(ByteOrder.nativeOrder());
+            kopf.putLong((int) position, laenge);
+            kopf.putLong((int) position + 8, pruefsumme((int) position + BEREICH, (int) laenge));
+            //Der Kopf ist für alle Sicherungen einer Berechnung gleich, nur die Positionen ändern sich.
+            // Die Kennung der Datei kommt zuletzt, ohne sie gilt der Kopf als noch nicht geschrieben
+            kopf.putInt(8, VERSION);
+            kopf.putInt(12, n);
+            kopf.putLong(16, this.kennung);
+            kopf.putLong(0, MAGIC);
+            //Erst jetzt zeigt der Kopf auf den neuen Bereich, mit einem einzigen Schreibzugriff
+            kopf.putLong(24, position);
+            this.aktuell = position;
+        } catch (IOException e) {
+            System.err.println("Sicherung konnte nicht geschrieben werden, rechne ohne Sicherung weiter: " + e.getMessage());
+            schliesse();
+        }
+        long ende = System.nanoTime();
+        this.naechste = ende + Math.max(ABSTAND, FAKTOR * (ende - beginn));
+    }
+
+    /**
+     * Methode zum Löschen der Sicherung nach einer vollständigen Berechnung
+     */
+    public void loesche() {
+        schliesse();
+        try {
+            Files.deleteIfExists(this.datei);
+        } catch (IOException e) {
+            System.err.println("Sicherung konnte nicht gelöscht werden: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Methode zum Öffnen der Datei und Mappen von mindestens groesse Bytes. Die Datei wird dabei bei Bedarf vergrößert,
+     * mit etwas Reserve, da die Anzahl der gespeicherten Kräfte wachsen kann.
+     */
+    private void oeffne(long groesse) throws IOException {
+        if (this.kanal == null) {
+            this.kanal = FileChannel.open(this.datei, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        if (this.puffer == null || this.puffer.capacity() < groesse) {
+            long neu = Math.max(groesse, this.kanal.size());
+            if (this.puffer != null) {
+                neu = Math.min(Integer.MAX_VALUE, Math.max(neu, groesse + groesse / 2));
+            }
+            this.puffer = this.kanal.map(FileChannel.MapMode.READ_WRITE, 0, neu);
+        }
+    }
+
+    private void schliesse() {
+        this.puffer = null;
+        this.aktuell = 0;
+        if (this.kanal != null) {
+            try {
+                this.kanal.close();
+            } catch (IOException ignoriert) {
+                //Die Sicherung wird nicht mehr gebraucht
+            }
+            this.kanal = null;
+        }
+    }
+
+    /**
+     * @return Returns true, wenn der Kopf der geöffneten Datei zum Modell und zur Kennung der Berechnung passt
+     */
+    private boolean passt(Modell modell) {
+        ByteBuffer kopf = this.puffer.duplicate().order(ByteOrder.nativeOrder());
+        return kopf.getLong(0) == 0     //Abbruch vor der ersten Sicherung, der Kopf wurde noch nicht geschrieben
+                || kopf.getLong(0) == MAGIC && kopf.getInt(8) == VERSION && kopf.getInt(12) == modell.anzahl
+                && kopf.getLong(16) == this.kennung;
+    }
+
+    /**
+     * @return Returns true, wenn an der Position ein vollständiger Bereich mit passender Prüfsumme liegt
+     */
+    private boolean gueltig(long position) {
+        ByteBuffer kopf = this.puffer.duplicate().order(ByteOrder.nativeOrder());
+        if (position < KOPF || position + BEREICH > this.puffer.capacity()) {
+            return false;
+        }
+        long laenge = kopf.getLong((int) position);
+        return laenge > 0 && position + BEREICH + laenge <= this.puffer.capacity()
+                && pruefsumme((int) position + BEREICH, (int) laenge) == kopf.getLong((int) position + 8);
+    }
+
+    private long pruefsumme(int position, int laenge) {
+        CRC32 crc = new CRC32();
+        crc.update(this.puffer.slice(position, laenge));
+        return crc.getValue();
+    }
+
+    /**
+     * @return Returns Hash der Radien, der Positionen, der Nachbarn und des Modus, damit keine Sicherung einer anderen Eingabe
+     * oder eines anderen Startlayouts geladen wird
+     */
+    private static long kennung(Modell modell, int modus) {
+        long hash = modus;
+        for (int i = 0; i < modell.anzahl; i++) {
+            hash = 31 * hash + Double.doubleToLongBits(modell.radius[i]);
+            hash = 31 * hash + Double.doubleToLongBits(modell.x[i]);
+            hash = 31 * hash + Double.doubleToLongBits(modell.y[i]);
+        }
+        return 31 * (31 * hash + Arrays.hashCode(modell.nachbarStart)) + Arrays.hashCode(modell.nachbarIndex);
+    }
+
+    private static void schreibe(ByteBuffer b, double[] werte, int anzahl) {
+        b.asDoubleBuffer().put(werte, 0, anzahl);
+        b.position(b.position() + 8 * anzahl);
+    }
+
+    private static void lese(ByteBuffer b, double[] werte, int anzahl) {
+        b.asDoubleBuffer().get(werte, 0, anzahl);
+        b.position(b.position() + 8 * anzahl);
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * Fehler, wenn eine Berechnung mit Sicherung nicht möglich ist: die vorhandene Sicherung passt bei --resume nicht zur Eingabe
+ * oder zu den Optionen, oder die Optionen unterstützen keine Sicherung. Die Sicherung bleibt dann erhalten (ExitCode 1).
+ * Andere Fehler der Berechnung sind keine Sicherungsfehler und bleiben unerwartete Fehler.
+ *
+ * @author ehamada
+ */
+public class Sicherungsfehler extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param nachricht Beschreibung des Fehlers
+     */
+    public Sicherungsfehler(String nachricht) {
+        super(nachricht);
+    }
+}
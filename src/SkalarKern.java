@@ -0,0 +1,39 @@
+/**
+ * Skalarer Rechenkern, rechnet genau wie der Algorithmus ohne Kern. Dient als Vergleich für den Vektorkern.
+ *
+ * @author ehamada
+ */
+public class SkalarKern implements Kern {
+
+    @Override
+    public int ueberlappungen(double[] x, double[] y, double[] radius, int i, Raster.Treffer treffer) {
+        treffer.reserviereKraft();
+        int gefunden = 0;
+        for (int k = 0; k < treffer.anzahl; k++) {
+            int j = treffer.index[k];
+            if (j != i) {
+                double kraft = Algorithmus.kraft(x, y, radius, i, j);
+                if (kraft < 0) {
+                    treffer.index[gefunden] = j;
+                    treffer.kraft[gefunden++] = kraft;
+                }
+            }
+        }
+        return gefunden;
+    }
+
+    @Override
+    public void verschiebung(double[] x, double[] y, int i, int[] partner, double[] kraft, int anzahl, double value,
+                             double[] verschiebungX, double[] verschiebungY) {
+        double summeX = 0;
+        double summeY = 0;
+        for (int k = 0; k < anzahl; k++) {
+            int j = partner[k];
+            double d = Math.sqrt((x[j] - x[i]) * (x[j] - x[i]) + (y[j] - y[i]) * (y[j] - y[i]));
+            summeX += kraft[k] * value / d * (x[j] - x[i]);
+            summeY += kraft[k] * value / d * (y[j] - y[i]);
+        }
+        verschiebungX[i] = summeX;
+        verschiebungY[i] = summeY;
+    }
+}
@@ -0,0 +1,148 @@
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.InvalidPropertiesFormatException;
+
+/**
+ * Klasse für den Warmstart des Hauptalgorithmus aus einem vorherigen Ergebnis.
+ * Liest die Koordinaten aus einer Ausgabedatei (Block zwischen <code>$data &lt;&lt; EOD</code> und <code>EOD</code>)
+ * (UTF-8, wie von der Klasse Ausgabe geschrieben) und setzt sie als Startkoordinaten, statt von den Längen- und Breitengraden zu starten.
+ * <p>
+ * Länder, die im vorherigen Ergebnis enthalten sind, starten an ihrer alten Position.
+ * Neue Länder werden in die Mitte ihrer Nachbarn aus dem vorherigen Ergebnis gesetzt,
+ * verschoben um ihre geographische Lage relativ zu diesen Nachbarn. Neue Länder ohne solche Nachbarn starten wie bisher.
+ * Ändern sich nur wenige Länder, ist das Iterationsverfahren dadurch nach wenigen Iterationen fertig.
+ *
+ * @author ehamada
+ */
+public class Startlayout {
+    /**
+     * Attribute:
+     *
+     * @positionen Name des Landes -> x und y Koordinate aus dem vorherigen Ergebnis
+     */
+    private final HashMap<String, double[]> positionen = new HashMap<>();
+
+    /**
+     * Methode zum Einlesen eines vorherigen Ergebnisses
+     *
+     * @param datei Dateiname der Ausgabedatei
+     * @param pfad  Pfad zu der Datei
+     * @return Returns eingelesenes Startlayout
+     * @throws Exception Falls die Datei nicht gelesen werden kann oder keine Koordinaten enthält (z.B. eine Fehlerausgabe)
+     */
+    public static Startlayout leseDatei(String datei, String pfad) throws Exception {
+        Startlayout start = new Startlayout();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(pfad + datei), StandardCharsets.UTF_8))) {
+            String line;
+            boolean daten = false;
+            while ((line = br.readLine()) != null) {
+                if (!daten) {
+                    daten = line.startsWith("$data");
+                } else if (line.startsWith("EOD")) {
+                    break;
+                } else {
+                    //Zeile hat das Format: x y radius name farbe, Dezimalkomma falls mit deutschem Locale geschrieben
+                    String[] split = Einlesen.zerlege(line.trim());
+                    if (split.length < 4) {
+                        throw new InvalidPropertiesFormatException("Ungültige Zeile im Startlayout: " + line);
+                    }
+                    double x = Double.parseDouble(split[0].replace(',', '.'));
+                    double y = Double.parseDouble(split[1].replace(',', '.'));
+                    start.positionen.put(split[3], new double[]{x, y});
+                }
+            }
+        }
+        if (start.positionen.isEmpty()) {
+            throw new InvalidPropertiesFormatException("Startlayout enthält keine Koordinaten");
+        }
+        return start;
+    }
+
+    /**
+     * Methode zum Erstellen eines Startlayouts aus berechneten Ländern, z.B. dem Ergebnis eines anderen Kennwerts
+     * derselben Länder (siehe {@link Kennwerte}).
+     *
+     * @param laender Länder nach dem Hauptalgorithmus
+     * @return Returns Startlayout mit den Koordinaten der Länder
+     */
+    public static Startlayout aus(ArrayList<Land> laender) {
+        Startlayout start = new Startlayout();
+        for (Land land : laender) {
+            start.positionen.put(land.name, new double[]{land.x, land.y});
+        }
+        return start;
+    }
+
+    /**
+     * @return Returns Anzahl der Länder im Startlayout
+     */
+    public int anzahl() {
+        return this.positionen.size();
+    }
+
+    /**
+     * Methode zum Setzen der Startkoordinaten im Modell. Muss nach der Voriteration aufgerufen werden,
+     * da die Koordinaten im Ergebnis bereits skaliert sind. Die alten Punkte werden ebenfalls gesetzt,
+     * damit epsilon in der ersten Iteration nur die tatsächliche Bewegung enthält.
+     *
+     * @param modell  Modell nach der Voriteration
+     * @param laender Liste der Länder, aus der das Modell erstellt wurde
+     * @return Returns Anzahl der Länder, die aus dem Startlayout übernommen wurden
+     */
+    public int wendeAn(Modell modell, ArrayList<Land> laender) {
+        boolean[] bekannt = new boolean[modell.anzahl];
+        double[] startX = new double[modell.anzahl];
+        double[] startY = new double[modell.anzahl];
+        int uebernommen = 0;
+        for (int i = 0; i < modell.anzahl; i++) {
+            double[] position = this.positionen.get(laender.get(i).name);
+            if (position != null) {
+                bekannt[i] = true;
+                startX[i] = position[0];
+                startY[i] = position[1];
+                uebernommen++;
+            }
+        }
+        for (int i = 0; i < modell.anzahl; i++) {
+            if (bekannt[i]) {
+                continue;
+            }
+            //Neues Land: Mitte der bekannten Nachbarn, verschoben um die geographische Lage relativ zu ihnen
+            double summeX = 0, summeY = 0, geoX = 0, geoY = 0;
+            int anzahl = 0;
+            for (int n = modell.nachbarStart[i]; n < modell.nachbarStart[i + 1]; n++) {
+                int j = modell.nachbarIndex[n];
+                if (bekannt[j]) {
+                    summeX += startX[j];
+                    summeY += startY[j];
+                    geoX += modell.x[j];
+                    geoY += modell.y[j];
+                    anzahl++;
+                }
+            }
+            if (anzahl == 0) {
+                startX[i] = modell.x[i];
+                startY[i] = modell.y[i];
+                continue;
+            }
+            double versatzX = modell.x[i] - geoX / anzahl;
+            double versatzY = modell.y[i] - geoY / anzahl;
+            if (versatzX == 0 && versatzY == 0) {
+                versatzX = modell.radius[i];    //Nicht genau auf einen Nachbarn setzen, sonst ist die Richtung der Kraft undefiniert
+            }
+            startX[i] = summeX / anzahl + versatzX;
+            startY[i] = summeY / anzahl + versatzY;
+        }
+        for (int i = 0; i < modell.anzahl; i++) {
+            modell.x[i] = startX[i];
+            modell.y[i] = startY[i];
+            modell.altX[i] = startX[i];
+            modell.altY[i] = startY[i];
+        }
+        return uebernommen;
+    }
+}
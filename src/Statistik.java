@@ -0,0 +1,49 @@
+/**
+ * Listener, der die Messwerte des Hauptalgorithmus auf der Kommandozeile ausgibt.
+ * Es wird jede n-te Iteration und am Ende die Zusammenfassung ausgegeben.
+ * Ein Listener für eine bestimmte Eingabe (siehe fuer) schreibt ihren Namen vor jede Zeile,
+ * damit die Ausgaben gleichzeitig berechneter Dateien im Batchbetrieb zugeordnet werden können.
+ *
+ * @author ehamada
+ */
+public class Statistik implements IterationsListener {
+    /**
+     * Attribute:
+     *
+     * @intervall Jede wievielte Iteration ausgegeben wird, 0 für nur die Zusammenfassung
+     * @praefix Name der Eingabe mit ": " vor jeder Zeile, "" ohne Eingabe
+     */
+    private final int intervall;
+    private final String praefix;
+
+    /**
+     * Konstruktor der Klasse
+     *
+     * @param intervall Jede wievielte Iteration ausgegeben wird, 0 für nur die Zusammenfassung
+     */
+    public Statistik(int intervall) {
+        this(intervall, "");
+    }
+
+    private Statistik(int intervall, String praefix) {
+        this.intervall = intervall;
+        this.praefix = praefix;
+    }
+
+    @Override
+    public void iteration(Messwerte messwerte) {
+        if (this.intervall > 0 && messwerte.iteration % this.intervall == 0) {
+            System.out.println(this.praefix + messwerte);
+        }
+    }
+
+    @Override
+    public void ende(Messwerte gesamt) {
+        System.out.println(this.praefix + "Zusammenfassung (" + gesamt.anzahl + " Länder): " + gesamt);
+    }
+
+    @Override
+    public IterationsListener fuer(String eingabe) {
+        return new Statistik(this.intervall, eingabe + ": ");
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * Verfahren, mit dem die berechneten Kräfte in jeder Iteration auf die Koordinaten angewendet werden.
+ * Das Kraftmodell ist bei allen Verfahren gleich, es ändert sich nur die Schrittweite.
+ * <p>
+ * FEST - feste Schrittweite, die Länder werden der Reihe nach verschoben (bisheriges Verfahren) <br>
+ * ADAPTIV - eigene Schrittweite für jedes Land, wächst solange die Kraft in dieselbe Richtung zeigt und schrumpft, wenn das Land hin und her springt <br>
+ * MOMENTUM - die Verschiebung der vorherigen Iteration wird gedämpft mitgenommen (Heavy Ball) <br>
+ * ABKUEHLUNG - große Schrittweite am Anfang, die mit jeder Iteration gegen die feste Schrittweite sinkt
+ * <p>
+ * Außer bei FEST werden alle Verschiebungen mit den Koordinaten zu Beginn der Iteration berechnet (wie im parallelen Modus).
+ * Als epsilon wird wie bei FEST die Summe der tatsächlichen Verschiebungen genutzt. Ein Land wird nur schneller als mit fester Schrittweite
+ * verschoben, solange seine Verschiebung nicht wächst, und wächst die Summe der Kräfte stark an, wird auf FEST zurückgefallen.
+ * Weniger Iterationen als FEST brauchen die Verfahren nur, wenn die Kräfte abklingen (z.B. auf den Beispielen),
+ * bei Eingaben, die wegen der gemerkten Abstoßungen nicht konvergieren, enden sie nach dem Rückfall ungefähr wie FEST.
+ * Das Verfahren, mit dem zuletzt verschoben wurde, steht im Ergebnis.
+ *
+ * @author ehamada
+ */
+public enum Strategie {
+    FEST, ADAPTIV, MOMENTUM, ABKUEHLUNG
+}
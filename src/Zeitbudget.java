@@ -0,0 +1,50 @@
+/**
+ * Zeitbudget für den Hauptalgorithmus. Mit Zeitbudget wird das Iterationsverfahren spätestens zur Frist beendet
+ * und gibt das beste bis dahin gefundene Layout zurück (siehe {@link Qualitaet}).
+ * Verbessert sich die Qualität über längere Zeit nicht mehr, wird ebenfalls vorzeitig beendet.
+ * Ohne Zeitbudget läuft das Iterationsverfahren wie bisher bis zur Abbruchschwelle oder zur maximalen Anzahl an Iterationen.
+ *
+ * @author ehamada
+ */
+public class Zeitbudget {
+    /**
+     * Attribute:
+     *
+     * @frist Zeitpunkt, an dem das Budget abläuft, in Nanosekunden (System.nanoTime)
+     */
+    private final long frist;
+
+    private Zeitbudget(long frist) {
+        this.frist = frist;
+    }
+
+    /**
+     * @param millis Budget in Millisekunden ab jetzt
+     * @return Returns Zeitbudget, das nach millis Millisekunden abläuft
+     */
+    public static Zeitbudget millis(long millis) {
+        return new Zeitbudget(System.nanoTime() + millis * 1_000_000);
+    }
+
+    /**
+     * @param zeitpunkt Frist als Zeitpunkt in Millisekunden seit 1970 (System.currentTimeMillis)
+     * @return Returns Zeitbudget, das zum Zeitpunkt abläuft
+     */
+    public static Zeitbudget bis(long zeitpunkt) {
+        return millis(zeitpunkt - System.currentTimeMillis());
+    }
+
+    /**
+     * @return Returns true, wenn die Frist erreicht ist
+     */
+    public boolean abgelaufen() {
+        return System.nanoTime() - this.frist >= 0;
+    }
+
+    /**
+     * @return Returns verbleibende Zeit in Millisekunden, negativ wenn die Frist überschritten ist
+     */
+    public long restMillis() {
+        return (this.frist - System.nanoTime()) / 1_000_000;
+    }
+}